@@ -0,0 +1,84 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BootstrapWriterBenchmark {
+  @Param({"100", "10000"})
+  public int size;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private List<PulsarBootstrapImpl.PathEntryImpl> paths;
+  private Map<String, String> properties;
+  private List<String> libraries;
+
+  @Setup
+  public void setup() {
+    this.paths = new ArrayList<>(this.size);
+    this.properties = new HashMap<>(this.size);
+    this.libraries = new ArrayList<>(this.size);
+    for(int i = 0; i < this.size; i++) {
+      final PulsarBootstrapImpl.PathEntryImpl path = new PulsarBootstrapImpl.PathEntryImpl("libraries/net/kyori/module" + i);
+      if(i % 2 == 0) {
+        path.setMinDepth(1);
+        path.setMaxDepth(i % 5);
+      }
+      this.paths.add(path);
+      this.properties.put("property." + i, "value & <" + i + '>');
+      this.libraries.add("libraries/net/kyori/module" + i + "/1.0/module" + i + "-1.0.jar");
+    }
+  }
+
+  @Benchmark
+  public int xml() throws IOException {
+    this.out.reset();
+    new BootstrapWriter(this.out).write("net.kyori.benchmark", "net.kyori.benchmark.Main", this.paths, this.properties);
+    return this.out.size();
+  }
+
+  @Benchmark
+  public int binary() throws IOException {
+    this.out.reset();
+    new BinaryBootstrapWriter(this.out).write("net.kyori.benchmark", "net.kyori.benchmark.Main", this.paths, this.properties, this.libraries);
+    return this.out.size();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.Synthetic;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResolveBenchmark {
+  @Param({"WIDE", "DEEP", "DIAMOND"})
+  public Synthetic.Shape shape;
+  @Param({"10000"})
+  public int nodes;
+  private PulsarDependenciesImpl dependencies;
+  private List<ResolvedComponentResult> roots;
+  private int[] visited;
+
+  @Setup
+  public void setup() {
+    this.dependencies = new PulsarDependenciesImpl(null);
+    this.dependencies.exclude(id -> id.getName().endsWith("7"));
+    this.dependencies.exclude(this.dependencies.dependency(Synthetic.dependency("net\\.kyori\\.synthetic\\.g1.*", "module.*", null)));
+    this.roots = Collections.singletonList(Synthetic.graph(this.shape, this.nodes));
+    this.visited = new int[this.roots.size()];
+  }
+
+  @Benchmark
+  public Collection<PulsarDependency> resolve() {
+    return this.dependencies.resolve(this.roots, this.visited);
+  }
+}
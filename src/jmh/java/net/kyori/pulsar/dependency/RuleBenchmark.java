@@ -0,0 +1,102 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.Synthetic;
+import net.kyori.pulsar.util.Identifier;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches 1000 dependencies against a set of rules, and against a single identifier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RuleBenchmark {
+  private static final int DEPENDENCIES = 1000;
+  @Param({"EXACT", "REGEX"})
+  public Kind kind;
+  @Param({"10", "100"})
+  public int rules;
+  private DependencyRules index;
+  private Identifier identifier;
+  private ModuleVersionIdentifier[] ids;
+
+  @Setup
+  public void setup() {
+    final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+    this.index = new DependencyRules();
+    for(int i = 0; i < this.rules; i++) {
+      this.index.rule(dependencies.dependency(this.kind.dependency(i))).include = i % 2 == 0;
+    }
+    this.identifier = new Identifier(this.kind.dependency(0));
+    this.ids = new ModuleVersionIdentifier[DEPENDENCIES];
+    for(int i = 0; i < DEPENDENCIES; i++) {
+      this.ids[i] = Synthetic.moduleVersion("net.kyori.g" + (i % 100), "module" + i, "1.0." + i);
+    }
+  }
+
+  @Benchmark
+  public void decide(final Blackhole blackhole) {
+    for(final ModuleVersionIdentifier id : this.ids) {
+      blackhole.consume(this.index.decide(id));
+    }
+  }
+
+  @Benchmark
+  public void isSatisfiedBy(final Blackhole blackhole) {
+    for(final ModuleVersionIdentifier id : this.ids) {
+      blackhole.consume(this.identifier.isSatisfiedBy(id));
+    }
+  }
+
+  public enum Kind {
+    EXACT {
+      @Override
+      Dependency dependency(final int i) {
+        return Synthetic.dependency("net.kyori.g" + i, "module" + i, "1.0." + i);
+      }
+    },
+    REGEX {
+      @Override
+      Dependency dependency(final int i) {
+        return Synthetic.dependency("net\\.kyori\\.g" + i, "module" + i + ".*", null);
+      }
+    };
+
+    abstract Dependency dependency(final int i);
+  }
+}
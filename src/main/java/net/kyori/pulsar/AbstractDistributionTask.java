@@ -0,0 +1,99 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Transformer;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A task consuming the contents of a distribution: the classpath, placed in the libraries directory,
+ * and the resources, placed at the root.
+ *
+ * <p>Tasks which only consume the classpath ignore the resources.</p>
+ */
+public abstract class AbstractDistributionTask extends DefaultTask {
+  private final ConfigurableFileCollection classpath = this.getProject().files();
+  private final ConfigurableFileCollection resources = this.getProject().files();
+  private Transformer<String, File> paths;
+
+  @InputFiles
+  @PathSensitive(PathSensitivity.NONE)
+  public ConfigurableFileCollection getClasspath() {
+    return this.classpath;
+  }
+
+  @Internal
+  public Transformer<String, File> getPathTransformer() {
+    return this.paths;
+  }
+
+  /**
+   * Sets the transformer that maps a classpath entry to its path relative to the distribution root.
+   *
+   * @param paths the transformer
+   */
+  public void setPathTransformer(final Transformer<String, File> paths) {
+    this.paths = paths;
+  }
+
+  @Input
+  public List<String> getPaths() {
+    final List<String> paths = new ArrayList<>();
+    for(final File file : this.classpath) {
+      paths.add(this.path(file));
+    }
+    return paths;
+  }
+
+  /**
+   * Gets the files placed at the root of the distribution.
+   *
+   * @return the resources
+   */
+  @InputFiles
+  @PathSensitive(PathSensitivity.NAME_ONLY)
+  public ConfigurableFileCollection getResources() {
+    return this.resources;
+  }
+
+  /**
+   * Gets the path of a classpath entry relative to the distribution root.
+   *
+   * @param file the classpath entry
+   * @return the path
+   */
+  protected String path(final File file) {
+    return this.paths.transform(file);
+  }
+}
@@ -32,6 +32,66 @@ public interface Pulsar {
    * The name of the extension.
    */
   String EXTENSION_NAME = "pulsar";
+  /**
+   * The name of the configuration resolving the aggregated projects.
+   */
+  String AGGREGATE_CONFIGURATION_NAME = "pulsarAggregate";
+  /**
+   * The name of the task that generates the bootstrap configuration.
+   */
+  String GENERATE_BOOTSTRAP_TASK_NAME = "generatePulsarBootstrap";
+  /**
+   * The name of the task that generates the classpath index.
+   */
+  String GENERATE_CLASSPATH_INDEX_TASK_NAME = "generatePulsarClasspathIndex";
+  /**
+   * The name of the task that generates the class data sharing archive.
+   */
+  String GENERATE_CDS_ARCHIVE_TASK_NAME = "generatePulsarCdsArchive";
+  /**
+   * The name of the task that merges the libraries into a single jar.
+   */
+  String MERGE_JARS_TASK_NAME = "mergePulsarJars";
+  /**
+   * The name of the task that builds an OCI image of the distribution.
+   */
+  String BUILD_IMAGE_TASK_NAME = "buildPulsarImage";
+  /**
+   * The name of the task that generates a delta bundle against a previous distribution.
+   */
+  String GENERATE_DELTA_TASK_NAME = "generatePulsarDelta";
+  /**
+   * The name of the task that writes the build measurements report.
+   */
+  String REPORT_TASK_NAME = "generatePulsarReport";
+  /**
+   * The name of the task that reports the size of the distribution, and checks it against its budget.
+   */
+  String SIZE_REPORT_TASK_NAME = "generatePulsarSizeReport";
+  /**
+   * The name of the task, created by the distribution plugin, that installs the distribution.
+   */
+  String INSTALL_TASK_NAME = "installPulsarDist";
+  /**
+   * The name of the task that installs the distribution with libraries linked from a shared store.
+   */
+  String INSTALL_SHARED_TASK_NAME = "installPulsarShared";
+  /**
+   * The name of the task that synchronizes the distribution in parallel, skipping unchanged files.
+   */
+  String SYNC_TASK_NAME = "syncPulsarDist";
+  /**
+   * The name of the task that installs an exploded development distribution of links.
+   */
+  String INSTALL_DEV_TASK_NAME = "installPulsarDev";
+  /**
+   * The name of the task that creates a zip archive of the distribution.
+   */
+  String ZIP_TASK_NAME = "pulsarZip";
+  /**
+   * The name of the task that creates a tar archive of the distribution.
+   */
+  String TAR_TASK_NAME = "pulsarTar";
 
   /**
    * The libraries directory name.
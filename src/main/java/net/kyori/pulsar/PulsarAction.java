@@ -23,17 +23,50 @@
  */
 package net.kyori.pulsar;
 
+import net.kyori.pulsar.archive.AbstractPulsarArchive;
+import net.kyori.pulsar.archive.PulsarTar;
+import net.kyori.pulsar.archive.PulsarZip;
 import net.kyori.pulsar.bootstrap.BootstrapConstants;
+import net.kyori.pulsar.bootstrap.BootstrapFormat;
+import net.kyori.pulsar.bootstrap.GenerateBootstrap;
+import net.kyori.pulsar.bootstrap.GenerateClasspathIndex;
+import net.kyori.pulsar.cds.GenerateCdsArchive;
+import net.kyori.pulsar.delta.GenerateDelta;
+import net.kyori.pulsar.dependency.PulsarDependency;
+import net.kyori.pulsar.dependency.PulsarLibraries;
+import net.kyori.pulsar.image.BuildOciImage;
+import net.kyori.pulsar.install.DevInstall;
+import net.kyori.pulsar.install.InstallShared;
+import net.kyori.pulsar.install.SyncDistribution;
+import net.kyori.pulsar.merge.MergeJars;
+import net.kyori.pulsar.report.GeneratePulsarReport;
+import net.kyori.pulsar.report.GeneratePulsarSizeReport;
 import net.kyori.pulsar.util.Identifier;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.Transformer;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.attributes.Usage;
 import org.gradle.api.distribution.Distribution;
 import org.gradle.api.distribution.DistributionContainer;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.CopySpec;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.plugins.JavaBasePlugin;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.Sync;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 public class PulsarAction implements Action<Project> {
   private final PulsarExtension extension;
@@ -44,27 +77,230 @@ public class PulsarAction implements Action<Project> {
 
   @Override
   public void execute(final Project project) {
-    final Distribution distribution = ((DistributionContainer) project.getExtensions().getByName("distributions")).maybeCreate(Pulsar.DISTRIBUTION_NAME);
+    // resolution is deferred until the distribution's contents are requested
+    if(!this.extension.aggregated.isEmpty()) {
+      this.aggregate(project);
+    }
 
+    this.distribution(project, this.extension.distribution, "");
+    for(final PulsarVariant variant : this.extension.variants.values()) {
+      // every variant selects from the same resolved graphs, and their artifacts are fetched together
+      this.extension.distribution.libraries.share(variant.libraries);
+      this.distribution(project, variant, Character.toUpperCase(variant.getName().charAt(0)) + variant.getName().substring(1));
+    }
+  }
+
+  // creates the distribution of a variant, and the tasks building it
+  private void distribution(final Project project, final PulsarVariant variant, final String suffix) {
+    final String name = Pulsar.DISTRIBUTION_NAME + suffix;
+    final Distribution distribution = ((DistributionContainer) project.getExtensions().getByName("distributions")).maybeCreate(name);
     final CopySpec libraries = project.copySpec();
     libraries.into(Pulsar.LIBRARIES_DIRECTROY_NAME);
 
-    this.extension.filter.resolve(this.extension.configurations).forEach(dependency -> dependency.into(libraries));
+    final PulsarLibraries selected = variant.libraries;
+    final FileCollection files = project.files((Callable<List<FileCollection>>) selected::files);
+    final Transformer<String, String> self = new Identifier(project).renamingTransformer();
+    final Task jar = project.getTasks().getAt(JavaPlugin.JAR_TASK_NAME);
 
-    if(this.extension.self) {
-      final Task jar = project.getTasks().getAt(JavaPlugin.JAR_TASK_NAME);
-      libraries.from(jar, spec -> spec.rename(new Identifier(project).renamingTransformer()));
+    final FileCollection classpath;
+    if(this.extension.merge) {
+      final MergeJars merge = project.getTasks().create(taskName(Pulsar.MERGE_JARS_TASK_NAME, suffix), MergeJars.class, task -> {
+        if(this.extension.self) {
+          task.getJars().from(jar);
+          task.setKeepManifest(true);
+        }
+        task.getJars().from(files);
+        task.setDestination(new File(project.getBuildDir(), name + "/merged/" + project.getName() + ".jar"));
+      });
+      classpath = project.files(merge);
+      libraries.from(merge, spec -> spec.rename(self));
+    } else {
+      classpath = this.extension.self ? project.files(jar, files) : files;
+      libraries.from(files, spec -> spec.eachFile(details -> {
+        final String path = selected.path(details.getFile());
+        if(path != null) {
+          details.setName(path);
+        }
+      }));
+      if(this.extension.self) {
+        libraries.from(jar, spec -> spec.rename(self));
+      }
     }
 
     distribution.getContents().with(libraries);
 
-    final File tmp = new File(project.getBuildDir(), "tmp");
-    if(!tmp.exists()) {
-      tmp.mkdirs();
+    final Transformer<String, File> paths = file -> {
+      final String path = selected.path(file);
+      return Pulsar.LIBRARIES_DIRECTROY_NAME + '/' + (path != null ? path : self.transform(file.getName()));
+    };
+    // files placed at the root of the distribution
+    final ConfigurableFileCollection resources = project.files();
+
+    if(variant.bootstrap.isConfigured()) {
+      final GenerateBootstrap bootstrap = project.getTasks().create(taskName(Pulsar.GENERATE_BOOTSTRAP_TASK_NAME, suffix), GenerateBootstrap.class, task -> {
+        variant.bootstrap.configure(task);
+        if(variant.bootstrap.isLibraries() && variant.bootstrap.getFormat() == BootstrapFormat.BINARY) {
+          task.dependsOn(classpath);
+          task.setLibraries(() -> classpath.getFiles().stream().map(paths::transform).collect(Collectors.toList()));
+        }
+        if(this.extension.cds) {
+          task.getBootstrapProperties().put(BootstrapConstants.CDS_ARCHIVE_PROPERTY, BootstrapConstants.CDS_ARCHIVE_FILE_NAME);
+        }
+        task.setDestination(new File(project.getBuildDir(), name + '/' + variant.bootstrap.getFormat().getFileName()));
+      });
+      resources.from(bootstrap);
+
+      if(variant.bootstrap.isIndex()) {
+        final GenerateClasspathIndex index = project.getTasks().create(taskName(Pulsar.GENERATE_CLASSPATH_INDEX_TASK_NAME, suffix), GenerateClasspathIndex.class, task -> {
+          task.getClasspath().from(classpath);
+          task.setPathTransformer(paths);
+          task.setDestination(new File(project.getBuildDir(), name + '/' + BootstrapConstants.CLASSPATH_INDEX_FILE_NAME));
+        });
+        resources.from(index);
+      }
+
+      if(this.extension.cds) {
+        final GenerateCdsArchive cds = project.getTasks().create(taskName(Pulsar.GENERATE_CDS_ARCHIVE_TASK_NAME, suffix), GenerateCdsArchive.class, task -> {
+          task.getClasspath().from(classpath);
+          task.setPathTransformer(paths);
+          task.setMainClass(bootstrap.getClassName());
+          task.setClassList(new File(project.getBuildDir(), name + "/classes.lst"));
+          task.setArchive(new File(project.getBuildDir(), name + '/' + BootstrapConstants.CDS_ARCHIVE_FILE_NAME));
+        });
+        resources.from(project.files(cds.getArchive()).builtBy(cds));
+      }
+    }
+    distribution.getContents().from(resources);
+
+    project.getTasks().register(taskName(Pulsar.BUILD_IMAGE_TASK_NAME, suffix), BuildOciImage.class, task -> {
+      task.getClasspath().from(classpath);
+      task.setPathTransformer(paths);
+      task.setApplicationPath(Pulsar.LIBRARIES_DIRECTROY_NAME + '/' + self.transform(jar.getName()));
+      task.setSnapshotSpec(file -> {
+        final PulsarDependency dependency = selected.dependency(file);
+        return dependency != null && dependency.isSnapshot();
+      });
+      task.getResources().from(resources);
+      task.setTag(String.valueOf(project.getVersion()));
+      task.setDestination(new File(project.getBuildDir(), name + "/image.tar"));
+    });
+
+    project.getTasks().register(taskName(Pulsar.GENERATE_DELTA_TASK_NAME, suffix), GenerateDelta.class, task -> {
+      task.getClasspath().from(classpath);
+      task.setPathTransformer(paths);
+      task.getResources().from(resources);
+      task.setManifest(new File(project.getBuildDir(), name + "/delta/manifest.idx"));
+      task.setDestination(new File(project.getBuildDir(), name + "/delta/" + project.getName() + '-' + project.getVersion() + "-delta.jar"));
+    });
+
+    final Sync install = (Sync) project.getTasks().getAt(taskName(Pulsar.INSTALL_TASK_NAME, suffix));
+    final String root = install.getDestinationDir().getName() + '-' + project.getVersion();
+    project.getTasks().register(taskName(Pulsar.INSTALL_SHARED_TASK_NAME, suffix), InstallShared.class, task -> {
+      task.getClasspath().from(classpath);
+      task.setPathTransformer(paths);
+      task.getResources().from(resources);
+      // outside of the build directory, so that it is shared between projects and survives a clean
+      task.setStore(new File(project.getGradle().getGradleUserHomeDir(), "pulsar/store"));
+      task.setHashCache(new File(project.getBuildDir(), name + "/shared-hashes.txt"));
+      task.setDestination(new File(project.getBuildDir(), name + "/shared/" + install.getDestinationDir().getName()));
+    });
+    project.getTasks().register(taskName(Pulsar.SYNC_TASK_NAME, suffix), SyncDistribution.class, task -> {
+      task.getClasspath().from(classpath);
+      task.setPathTransformer(paths);
+      task.getResources().from(resources);
+      task.setDestination(new File(project.getBuildDir(), name + "/sync/" + install.getDestinationDir().getName()));
+      task.setHashCache(new File(project.getBuildDir(), name + "/sync-hashes.txt"));
+    });
+    project.getTasks().register(taskName(Pulsar.INSTALL_DEV_TASK_NAME, suffix), DevInstall.class, task -> {
+      // the files are not inputs, so that they are not fingerprinted on every build
+      task.dependsOn(classpath, resources);
+      task.getClasspath().from(classpath);
+      task.setPathTransformer(paths);
+      task.getResources().from(resources);
+      task.setDestination(new File(project.getBuildDir(), name + "/dev/" + install.getDestinationDir().getName()));
+    });
+    final Action<AbstractPulsarArchive> archive = task -> {
+      task.dependsOn(install);
+      task.setSource(install.getDestinationDir());
+      task.setRootDirectory(root);
+    };
+    project.getTasks().register(taskName(Pulsar.ZIP_TASK_NAME, suffix), PulsarZip.class, task -> {
+      archive.execute(task);
+      task.setDestination(new File(project.getBuildDir(), name + "/distributions/" + root + ".zip"));
+    });
+    project.getTasks().register(taskName(Pulsar.TAR_TASK_NAME, suffix), PulsarTar.class, task -> {
+      archive.execute(task);
+      // the extension follows the compression, which may be configured after the task is created
+      task.setDestination(() -> new File(project.getBuildDir(), name + "/distributions/" + root + task.getCompression().getExtension()));
+    });
+
+    final GeneratePulsarReport report = project.getTasks().create(taskName(Pulsar.REPORT_TASK_NAME, suffix), GeneratePulsarReport.class, task -> {
+      task.setMetrics(variant.metrics);
+      task.setDestination(new File(project.getBuildDir(), "reports/" + name + "/metrics.json"));
+    });
+    final GeneratePulsarSizeReport size = project.getTasks().create(taskName(Pulsar.SIZE_REPORT_TASK_NAME, suffix), GeneratePulsarSizeReport.class, task -> {
+      // the jars as selected, rather than merged, so that they can be attributed
+      task.getClasspath().from(this.extension.self ? project.files(jar, files) : files);
+      task.setPathTransformer(paths);
+      task.setAttribution(selected::attribution);
+      task.setBudget(variant.budget);
+      task.setJson(new File(project.getBuildDir(), "reports/" + name + "/size.json"));
+      task.setHtml(new File(project.getBuildDir(), "reports/" + name + "/size.html"));
+    });
+    if(variant.budget.isConfigured()) {
+      project.getTasks().getAt(JavaBasePlugin.CHECK_TASK_NAME).dependsOn(size);
+    }
+
+    for(final String constant : Arrays.asList(
+      Pulsar.GENERATE_BOOTSTRAP_TASK_NAME,
+      Pulsar.GENERATE_CLASSPATH_INDEX_TASK_NAME,
+      Pulsar.GENERATE_CDS_ARCHIVE_TASK_NAME,
+      Pulsar.MERGE_JARS_TASK_NAME,
+      Pulsar.BUILD_IMAGE_TASK_NAME,
+      Pulsar.GENERATE_DELTA_TASK_NAME,
+      Pulsar.INSTALL_TASK_NAME,
+      Pulsar.INSTALL_SHARED_TASK_NAME,
+      Pulsar.SYNC_TASK_NAME,
+      Pulsar.INSTALL_DEV_TASK_NAME,
+      Pulsar.ZIP_TASK_NAME,
+      Pulsar.TAR_TASK_NAME
+    )) {
+      final String measured = taskName(constant, suffix);
+      // configured as each task is created, so that registered tasks are not created here
+      if(project.getTasks().getNames().contains(measured)) {
+        project.getTasks().named(measured).configure(task -> {
+          variant.metrics.time(task);
+          // requested together, the report is written once the tasks it measures have run
+          report.mustRunAfter(task);
+          if(this.extension.report) {
+            task.finalizedBy(report);
+          }
+        });
+      }
     }
-    final File bootstrap = new File(tmp, BootstrapConstants.CONFIGURATION_FILE_NAME);
-    if(this.extension.bootstrap.write(project.getLogger(), bootstrap)) {
-      distribution.getContents().from(bootstrap);
+  }
+
+  // inserts the suffix after "pulsar", so that a variant's tasks follow those of the distribution plugin
+  private static String taskName(final String name, final String suffix) {
+    final int index = name.toLowerCase(Locale.ROOT).indexOf(Pulsar.DISTRIBUTION_NAME) + Pulsar.DISTRIBUTION_NAME.length();
+    return name.substring(0, index) + suffix + name.substring(index);
+  }
+
+  // resolves every aggregated project through a single configuration, so that their graphs are merged
+  private void aggregate(final Project project) {
+    final Configuration aggregate = project.getConfigurations().create(Pulsar.AGGREGATE_CONFIGURATION_NAME, configuration -> {
+      configuration.setDescription("Projects aggregated into the pulsar distribution.");
+      configuration.setVisible(false);
+      configuration.setCanBeConsumed(false);
+      configuration.getAttributes().attribute(Usage.USAGE_ATTRIBUTE, project.getObjects().named(Usage.class, Usage.JAVA_RUNTIME));
+    });
+    for(final Object aggregated : this.extension.aggregated) {
+      final Map<String, String> notation = new HashMap<>(1);
+      notation.put("path", aggregated instanceof Project ? ((Project) aggregated).getPath() : String.valueOf(aggregated));
+      aggregate.getDependencies().add(project.getDependencies().project(notation));
     }
+    final Collection<Configuration> configurations = new ArrayList<>(this.extension.configurations);
+    configurations.add(aggregate);
+    this.extension.configurations = configurations;
   }
 }
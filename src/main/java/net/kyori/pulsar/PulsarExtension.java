@@ -23,37 +23,91 @@
  */
 package net.kyori.pulsar;
 
+import net.kyori.pulsar.bootstrap.BootstrapConstants;
 import net.kyori.pulsar.bootstrap.PulsarBootstrap;
-import net.kyori.pulsar.bootstrap.PulsarBootstrapImpl;
 import net.kyori.pulsar.dependency.PulsarDependencies;
-import net.kyori.pulsar.dependency.PulsarDependenciesImpl;
+import net.kyori.pulsar.report.PulsarBudget;
 import org.gradle.api.Action;
-import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.model.ObjectFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class PulsarExtension {
   Collection<Configuration> configurations = new ArrayList<>();
-  final PulsarBootstrapImpl bootstrap = new PulsarBootstrapImpl();
-  final PulsarDependencies filter;
+  private final ObjectFactory objects;
+  private final DependencyHandler dependencies;
+  final PulsarVariant distribution;
+  final Map<String, PulsarVariant> variants = new LinkedHashMap<>();
   boolean self = true;
+  boolean cds;
+  boolean merge;
+  boolean report;
+  final List<Object> aggregated = new ArrayList<>();
 
-  public PulsarExtension(final Project project) {
-    this.filter = new PulsarDependenciesImpl(project);
+  public PulsarExtension(final ObjectFactory objects, final DependencyHandler dependencies) {
+    this.objects = objects;
+    this.dependencies = dependencies;
+    this.distribution = this.variant(Pulsar.DISTRIBUTION_NAME);
   }
 
   public PulsarExtension bootstrap(final Action<PulsarBootstrap> action) {
-    action.execute(this.bootstrap);
+    this.distribution.bootstrap(action);
     return this;
   }
 
   public PulsarExtension dependencies(final Action<PulsarDependencies> action) {
-    action.execute(this.filter);
+    this.distribution.dependencies(action);
     return this;
   }
 
+  /**
+   * Configures the budget of the distribution.
+   *
+   * @param action the action configuring the budget
+   * @return this
+   * @see PulsarVariant#budget(Action)
+   */
+  public PulsarExtension budget(final Action<PulsarBudget> action) {
+    this.distribution.budget(action);
+    return this;
+  }
+
+  /**
+   * Configures a variant of the distribution, creating it if it does not exist.
+   *
+   * <p>A variant is a separate distribution, with its own tasks, which selects its libraries from the
+   * same configurations using its own dependency rules. The configurations are resolved, and the
+   * selected artifacts of every variant are fetched, once. The project jar, merging and class data
+   * sharing settings apply to every variant.</p>
+   *
+   * <p>The tasks of a variant are named after those of the distribution, with the variant name
+   * following {@code pulsar}: the {@code worker} variant is built by {@code generatePulsarWorkerBootstrap},
+   * {@code installPulsarWorkerDist}, and so on.</p>
+   *
+   * @param name the variant name
+   * @param action the action configuring the variant
+   * @return the variant
+   */
+  public PulsarVariant variant(final String name, final Action<PulsarVariant> action) {
+    final PulsarVariant variant = this.variants.computeIfAbsent(name, this::variant);
+    action.execute(variant);
+    return variant;
+  }
+
+  // decorated, so that Gradle generates closure-accepting variants of its methods
+  private PulsarVariant variant(final String name) {
+    final Supplier<Collection<Configuration>> configurations = () -> this.configurations;
+    return this.objects.newInstance(PulsarVariant.class, name, this.objects, this.dependencies, configurations);
+  }
+
   public Collection<Configuration> getConfigurations() {
     return this.configurations;
   }
@@ -62,7 +116,59 @@ public class PulsarExtension {
     this.configurations = configurations;
   }
 
+  /**
+   * Aggregates other projects into this distribution: their jars, and the libraries they depend on.
+   *
+   * <p>The projects are resolved together as a single graph, so a component shared between them is
+   * only resolved, and matched against the dependency rules, once. Their jars are selected as
+   * dependencies, and so may be filtered with {@link PulsarDependencies#project(String)} specs.</p>
+   *
+   * <p>The jar of this project is no longer included, unless {@link #setSelf(boolean) included} again afterwards.</p>
+   *
+   * @param projects the projects, as paths or {@link org.gradle.api.Project projects}
+   * @return this
+   */
+  public PulsarExtension aggregate(final Object... projects) {
+    Collections.addAll(this.aggregated, projects);
+    this.self = false;
+    return this;
+  }
+
   public void setSelf(final boolean self) {
     this.self = self;
   }
+
+  /**
+   * Sets if the selected libraries, and the project jar if {@link #setSelf(boolean) included}, should
+   * be merged into a single jar instead of being copied individually.
+   *
+   * @param merge if the libraries should be merged
+   */
+  public void setMerge(final boolean merge) {
+    this.merge = merge;
+  }
+
+  /**
+   * Sets if a class data sharing archive should be generated and shipped with the distribution.
+   *
+   * <p>The archive is generated by running the bootstrap class, and is referenced by the
+   * {@value BootstrapConstants#CDS_ARCHIVE_PROPERTY} bootstrap property. Generating and using the
+   * archive needs Java {@value net.kyori.pulsar.cds.GenerateCdsArchive#MINIMUM_VERSION} or later.</p>
+   *
+   * @param cds if a class data sharing archive should be generated
+   */
+  public void setCds(final boolean cds) {
+    this.cds = cds;
+  }
+
+  /**
+   * Sets if the build measurements report should be written whenever a task of the distribution runs.
+   *
+   * <p>Otherwise, the report is only written when its task is requested.</p>
+   *
+   * @param report if the report should be written with every distribution task
+   */
+  public void setReport(final boolean report) {
+    this.report = report;
+  }
 }
@@ -34,7 +34,7 @@ public class PulsarPlugin implements Plugin<Project> {
   public void apply(final Project project) {
     this.applyDependencies(project.getPluginManager());
 
-    final PulsarExtension extension = project.getExtensions().create(Pulsar.EXTENSION_NAME, PulsarExtension.class, project);
+    final PulsarExtension extension = project.getExtensions().create(Pulsar.EXTENSION_NAME, PulsarExtension.class, project.getObjects(), project.getDependencies());
     extension.getConfigurations().add(project.getConfigurations().findByName(JavaPlugin.RUNTIME_CLASSPATH_CONFIGURATION_NAME));
 
     project.afterEvaluate(new PulsarAction(extension));
@@ -0,0 +1,92 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar;
+
+import net.kyori.pulsar.bootstrap.PulsarBootstrap;
+import net.kyori.pulsar.bootstrap.PulsarBootstrapImpl;
+import net.kyori.pulsar.dependency.PulsarDependencies;
+import net.kyori.pulsar.dependency.PulsarDependenciesImpl;
+import net.kyori.pulsar.dependency.PulsarLibraries;
+import net.kyori.pulsar.report.PulsarBudget;
+import net.kyori.pulsar.report.PulsarMetrics;
+import org.gradle.api.Action;
+import org.gradle.api.Named;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.model.ObjectFactory;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+
+/**
+ * A distribution built by pulsar, with its own dependency filter and bootstrap.
+ *
+ * <p>Every variant selects its libraries from the same resolved configurations.</p>
+ */
+public class PulsarVariant implements Named {
+  private final String name;
+  final PulsarBootstrapImpl bootstrap;
+  final PulsarDependenciesImpl filter;
+  final PulsarLibraries libraries;
+  final PulsarMetrics metrics = new PulsarMetrics();
+  final PulsarBudget budget = new PulsarBudget();
+
+  @Inject
+  public PulsarVariant(final String name, final ObjectFactory objects, final DependencyHandler dependencies, final Supplier<Collection<Configuration>> configurations) {
+    this.name = name;
+    this.bootstrap = objects.newInstance(PulsarBootstrapImpl.class, objects);
+    this.filter = new PulsarDependenciesImpl(dependencies, this.metrics);
+    this.libraries = new PulsarLibraries(this.filter, configurations, this.metrics);
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  public PulsarVariant bootstrap(final Action<PulsarBootstrap> action) {
+    action.execute(this.bootstrap);
+    return this;
+  }
+
+  public PulsarVariant dependencies(final Action<PulsarDependencies> action) {
+    action.execute(this.filter);
+    return this;
+  }
+
+  /**
+   * Configures the budget of this variant, which fails the build when exceeded.
+   *
+   * <p>The budget is checked by the size report, which is run by {@code check} once any limit is set.</p>
+   *
+   * @param action the action configuring the budget
+   * @return this
+   */
+  public PulsarVariant budget(final Action<PulsarBudget> action) {
+    action.execute(this.budget);
+    return this;
+  }
+}
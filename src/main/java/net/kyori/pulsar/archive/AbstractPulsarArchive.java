@@ -0,0 +1,166 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * An archive of a distribution, assembled in parallel.
+ *
+ * <p>Entries are sorted, and written with a fixed timestamp, so the archive only depends on the
+ * contents of the distribution.</p>
+ */
+public abstract class AbstractPulsarArchive extends DefaultTask {
+  private File source;
+  private String rootDirectory;
+  private Callable<File> destination;
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Gets the installed distribution to archive.
+   *
+   * @return the distribution directory
+   */
+  @InputDirectory
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public File getSource() {
+    return this.source;
+  }
+
+  public void setSource(final File source) {
+    this.source = source;
+  }
+
+  /**
+   * Gets the name of the directory the distribution is placed in within the archive.
+   *
+   * @return the directory name
+   */
+  @Input
+  public String getRootDirectory() {
+    return this.rootDirectory;
+  }
+
+  public void setRootDirectory(final String rootDirectory) {
+    this.rootDirectory = rootDirectory;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    try {
+      return this.destination.call();
+    } catch(final Exception e) {
+      throw new GradleException("Could not determine the destination of " + this, e);
+    }
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = () -> destination;
+  }
+
+  /**
+   * Sets the destination, computed whenever it is requested, so that it may depend on settings
+   * changed after it is set.
+   *
+   * @param destination the destination
+   */
+  public void setDestination(final Callable<File> destination) {
+    this.destination = destination;
+  }
+
+  /**
+   * Gets the number of threads used to compress entries.
+   *
+   * @return the number of threads
+   */
+  @Internal
+  public int getThreads() {
+    return this.threads;
+  }
+
+  public void setThreads(final int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Lists the entries of the distribution, directories first within each directory, then in name order.
+   *
+   * @return the entries
+   */
+  protected List<Entry> entries() {
+    final List<Entry> entries = new ArrayList<>();
+    entries.add(new Entry(this.rootDirectory, null));
+    this.entries(this.source, this.rootDirectory, entries);
+    return entries;
+  }
+
+  private void entries(final File directory, final String path, final List<Entry> entries) {
+    final File[] children = directory.listFiles();
+    if(children == null) {
+      return;
+    }
+    Arrays.sort(children, (a, b) -> {
+      if(a.isDirectory() != b.isDirectory()) {
+        return a.isDirectory() ? -1 : 1;
+      }
+      return a.getName().compareTo(b.getName());
+    });
+    for(final File child : children) {
+      final String name = path + '/' + child.getName();
+      if(child.isDirectory()) {
+        entries.add(new Entry(name, null));
+        this.entries(child, name, entries);
+      } else {
+        entries.add(new Entry(name, child));
+      }
+    }
+  }
+
+  protected static final class Entry {
+    final String name;
+    final File file;
+
+    Entry(final String name, final File file) {
+      this.name = name;
+      this.file = file;
+    }
+
+    boolean isDirectory() {
+      return this.file == null;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip output stream which compresses fixed-size blocks in parallel.
+ *
+ * <p>Each block is written as a separate gzip member. Concatenated members are a valid gzip stream,
+ * and are read back as a single stream by {@code gzip}, {@code tar} and {@link java.util.zip.GZIPInputStream}.</p>
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+  private static final int BLOCK_SIZE = 1024 * 1024;
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+  private final OutputStream out;
+  private final ExecutorService executor;
+  private final int level;
+  private final int pending;
+  private final Deque<Future<byte[]>> members = new ArrayDeque<>();
+  private byte[] block = new byte[BLOCK_SIZE];
+  private int count;
+
+  ParallelGzipOutputStream(final OutputStream out, final ExecutorService executor, final int level, final int threads) {
+    this.out = out;
+    this.executor = executor;
+    this.level = level;
+    this.pending = Math.max(2, threads * 2);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if(this.count == BLOCK_SIZE) {
+      this.submit();
+    }
+    this.block[this.count++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, int off, int len) throws IOException {
+    while(len > 0) {
+      if(this.count == BLOCK_SIZE) {
+        this.submit();
+      }
+      final int n = Math.min(len, BLOCK_SIZE - this.count);
+      System.arraycopy(b, off, this.block, this.count, n);
+      this.count += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  private void submit() throws IOException {
+    final byte[] block = this.block;
+    final int count = this.count;
+    final int level = this.level;
+    this.members.add(this.executor.submit(() -> member(block, count, level)));
+    this.block = new byte[BLOCK_SIZE];
+    this.count = 0;
+    // bound the memory held by blocks which have been compressed but not yet written
+    while(this.members.size() >= this.pending) {
+      this.drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    try {
+      this.out.write(this.members.remove().get());
+    } catch(final ExecutionException e) {
+      throw new IOException(e.getCause());
+    } catch(final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if(this.count > 0 || this.members.isEmpty()) {
+        this.submit();
+      }
+      while(!this.members.isEmpty()) {
+        this.drain();
+      }
+    } finally {
+      this.out.close();
+    }
+  }
+
+  private static byte[] member(final byte[] block, final int count, final int level) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(count / 2 + 64);
+    out.write(HEADER, 0, HEADER.length);
+    final Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setInput(block, 0, count);
+      deflater.finish();
+      final byte[] buffer = new byte[64 * 1024];
+      while(!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+    } finally {
+      deflater.end();
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(block, 0, count);
+    int32(out, crc.getValue());
+    int32(out, count);
+    return out.toByteArray();
+  }
+
+  private static void int32(final ByteArrayOutputStream out, final long value) {
+    out.write((int) value);
+    out.write((int) (value >>> 8));
+    out.write((int) (value >>> 16));
+    out.write((int) (value >>> 24));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import net.kyori.pulsar.util.TarWriter;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+
+/**
+ * Creates a tar archive of a distribution.
+ *
+ * <p>Compression defaults to the fastest gzip level, as the bulk of a distribution is jars which are already compressed.</p>
+ */
+@CacheableTask
+public class PulsarTar extends AbstractPulsarArchive {
+  private TarCompression compression = TarCompression.GZIP;
+  private int compressionLevel = Deflater.BEST_SPEED;
+
+  @Input
+  public TarCompression getCompression() {
+    return this.compression;
+  }
+
+  public void setCompression(final TarCompression compression) {
+    this.compression = compression;
+  }
+
+  @Input
+  public int getCompressionLevel() {
+    return this.compressionLevel;
+  }
+
+  public void setCompressionLevel(final int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  @TaskAction
+  public void archive() {
+    final int threads = Math.max(1, this.getThreads());
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      OutputStream out = new BufferedOutputStream(Files.newOutputStream(this.getDestination().toPath()));
+      if(this.compression == TarCompression.GZIP) {
+        out = new ParallelGzipOutputStream(out, executor, this.compressionLevel, threads);
+      }
+      try(final TarWriter writer = new TarWriter(out)) {
+        for(final Entry entry : this.entries()) {
+          if(entry.isDirectory()) {
+            writer.directory(entry.name);
+          } else {
+            writer.file(entry.name, entry.file, entry.file.canExecute());
+          }
+        }
+      }
+    } catch(final IOException e) {
+      throw new GradleException("Could not create " + this.getDestination(), e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import net.kyori.pulsar.util.Directories;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Creates a zip archive of a distribution.
+ *
+ * <p>Files which are already compressed, such as jars, are stored as-is. Everything else is compressed
+ * in parallel, with a bounded number of entries prepared ahead of the one being written.</p>
+ */
+@CacheableTask
+public class PulsarZip extends AbstractPulsarArchive {
+  private Set<String> storedExtensions = new LinkedHashSet<>(Arrays.asList("jar", "war", "zip", "gz", "tgz", "xz", "bz2", "zst", "png", "jpg", "jpeg", "gif"));
+  private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+  /**
+   * Gets the extensions of files which are stored without compression.
+   *
+   * @return the extensions
+   */
+  @Input
+  public Set<String> getStoredExtensions() {
+    return this.storedExtensions;
+  }
+
+  public void setStoredExtensions(final Set<String> storedExtensions) {
+    this.storedExtensions = new LinkedHashSet<>(storedExtensions);
+  }
+
+  @Input
+  public int getCompressionLevel() {
+    return this.compressionLevel;
+  }
+
+  public void setCompressionLevel(final int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  @TaskAction
+  public void archive() {
+    final int threads = Math.max(1, this.getThreads());
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final File temporary = this.getTemporaryDir();
+      Directories.clear(temporary.toPath());
+      // bound the entries prepared ahead of the writer, as deflated entries are held until written
+      final Deque<Future<ZipWriter.Entry>> pending = new ArrayDeque<>();
+      final int window = Math.max(2, threads * 2);
+      try(final ZipWriter writer = new ZipWriter(new BufferedOutputStream(Files.newOutputStream(this.getDestination().toPath())))) {
+        int index = 0;
+        for(final Entry entry : this.entries()) {
+          if(entry.isDirectory()) {
+            pending.add(executor.submit(() -> ZipWriter.directory(entry.name)));
+          } else if(this.stored(entry.name)) {
+            pending.add(executor.submit(() -> ZipWriter.stored(entry.name, entry.file)));
+          } else {
+            final File spill = new File(temporary, index++ + ".deflated");
+            pending.add(executor.submit(() -> ZipWriter.prepare(entry.name, entry.file, this.compressionLevel, spill)));
+          }
+          while(pending.size() >= window) {
+            writer.write(pending.remove().get());
+          }
+        }
+        while(!pending.isEmpty()) {
+          writer.write(pending.remove().get());
+        }
+      }
+    } catch(final IOException e) {
+      throw new GradleException("Could not create " + this.getDestination(), e);
+    } catch(final ExecutionException e) {
+      throw new GradleException("Could not create " + this.getDestination(), e.getCause());
+    } catch(final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GradleException("Interrupted while creating " + this.getDestination(), e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private boolean stored(final String name) {
+    final int dot = name.lastIndexOf('.');
+    return dot != -1 && this.storedExtensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.annotation.Nullable;
+
+/**
+ * A zip writer which accepts entries that have already been compressed.
+ *
+ * <p>{@link java.util.zip.ZipOutputStream} compresses entries as they are written, which forces
+ * compression onto a single thread. Entries written here are {@link #prepare(String, File, int, File) prepared}
+ * independently, and only copied into the archive in order.</p>
+ */
+final class ZipWriter implements Closeable {
+  private static final int STORED = 0;
+  private static final int DEFLATED = 8;
+  private static final int UTF_8 = 1 << 11;
+  private static final int VERSION = 20;
+  private static final int VERSION_MADE_BY = (3 << 8) | VERSION; // unix
+  private static final int TIME = 0;
+  private static final int DATE = (2 << 5) | 1; // 1980-02-01
+  private static final long LIMIT = 0xffffffffL;
+  private static final int MAX_ENTRIES = 0xffff;
+  /**
+   * The size of compressed contents held in memory before they are spilled to disk.
+   */
+  static final int IN_MEMORY = 1024 * 1024;
+  private final OutputStream out;
+  private final ByteArrayOutputStream central = new ByteArrayOutputStream();
+  private final byte[] buffer = new byte[64 * 1024];
+  private long offset;
+  private int entries;
+
+  ZipWriter(final OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Prepares a directory entry.
+   *
+   * @param name the name, without a trailing {@code /}
+   * @return the entry
+   */
+  static Entry directory(final String name) {
+    return new Entry(name + '/', STORED, 0, 0, 0, null, null, false, 040755);
+  }
+
+  /**
+   * Prepares a file entry which is stored without compression.
+   *
+   * @param name the name
+   * @param file the file
+   * @return the entry
+   * @throws IOException if an exception is encountered while reading
+   */
+  static Entry stored(final String name, final File file) throws IOException {
+    final CRC32 crc = new CRC32();
+    final byte[] buffer = new byte[64 * 1024];
+    long size = 0;
+    try(final InputStream is = Files.newInputStream(file.toPath())) {
+      int read;
+      while((read = is.read(buffer)) != -1) {
+        crc.update(buffer, 0, read);
+        size += read;
+      }
+    }
+    return new Entry(name, STORED, crc.getValue(), size, size, file, null, false, mode(file));
+  }
+
+  /**
+   * Prepares a file entry which is compressed, falling back to storing it if compression does not reduce its size.
+   *
+   * <p>The file is compressed as it is read. Compressed contents larger than {@link #IN_MEMORY} are
+   * spilled to {@code temporary}, which is deleted once the entry is written.</p>
+   *
+   * @param name the name
+   * @param file the file
+   * @param level the compression level
+   * @param temporary the file compressed contents may be spilled to
+   * @return the entry
+   * @throws IOException if an exception is encountered while reading
+   */
+  static Entry prepare(final String name, final File file, final int level, final File temporary) throws IOException {
+    final CRC32 crc = new CRC32();
+    final Deflater deflater = new Deflater(level, true);
+    final byte[] input = new byte[64 * 1024];
+    final byte[] output = new byte[64 * 1024];
+    final Spill compressed = new Spill(temporary);
+    long size = 0;
+    try(final InputStream is = Files.newInputStream(file.toPath())) {
+      int read;
+      while((read = is.read(input)) != -1) {
+        crc.update(input, 0, read);
+        size += read;
+        deflater.setInput(input, 0, read);
+        while(!deflater.needsInput()) {
+          compressed.write(output, 0, deflater.deflate(output));
+        }
+      }
+      deflater.finish();
+      while(!deflater.finished()) {
+        compressed.write(output, 0, deflater.deflate(output));
+      }
+      compressed.close();
+    } catch(final IOException e) {
+      compressed.delete();
+      throw e;
+    } finally {
+      deflater.end();
+    }
+    if(compressed.size >= size) {
+      compressed.delete();
+      return new Entry(name, STORED, crc.getValue(), size, size, file, null, false, mode(file));
+    }
+    if(compressed.bytes != null) {
+      return new Entry(name, DEFLATED, crc.getValue(), compressed.size, size, null, compressed.bytes.toByteArray(), false, mode(file));
+    }
+    return new Entry(name, DEFLATED, crc.getValue(), compressed.size, size, temporary, null, true, mode(file));
+  }
+
+  private static int mode(final File file) {
+    return 0100000 | (file.canExecute() ? 0755 : 0644);
+  }
+
+  /**
+   * Writes a prepared entry.
+   *
+   * @param entry the entry
+   * @throws IOException if an exception is encountered while writing
+   */
+  void write(final Entry entry) throws IOException {
+    // zip64 extensions are not written, so an archive which would need them is refused rather than corrupted
+    if(this.offset > LIMIT || entry.compressedSize > LIMIT || entry.size > LIMIT) {
+      throw new IOException("The distribution is too large for a zip archive without zip64 extensions, use a tar archive instead");
+    }
+    if(++this.entries > MAX_ENTRIES) {
+      throw new IOException("The distribution has more than " + MAX_ENTRIES + " entries, which a zip archive without zip64 extensions cannot hold, use a tar archive instead");
+    }
+    final byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream header = new ByteArrayOutputStream(30 + name.length);
+    int32(header, 0x04034b50);
+    int16(header, VERSION);
+    this.common(header, entry, name);
+    header.write(name);
+    header.writeTo(this.out);
+
+    int32(this.central, 0x02014b50);
+    int16(this.central, VERSION_MADE_BY);
+    int16(this.central, VERSION);
+    this.common(this.central, entry, name);
+    int16(this.central, 0); // comment
+    int16(this.central, 0); // disk
+    int16(this.central, 0); // internal attributes
+    int32(this.central, (long) entry.mode << 16);
+    int32(this.central, this.offset);
+    this.central.write(name);
+
+    this.offset += header.size();
+    if(entry.bytes != null) {
+      this.out.write(entry.bytes);
+    } else if(entry.file != null) {
+      long copied = 0;
+      try(final InputStream is = Files.newInputStream(entry.file.toPath())) {
+        int read;
+        while((read = is.read(this.buffer)) != -1) {
+          this.out.write(this.buffer, 0, read);
+          copied += read;
+        }
+      }
+      if(entry.temporary) {
+        Files.delete(entry.file.toPath());
+      }
+      if(copied != entry.compressedSize) {
+        throw new IOException(entry.file + " changed while being written");
+      }
+    }
+    this.offset += entry.compressedSize;
+  }
+
+  private void common(final ByteArrayOutputStream out, final Entry entry, final byte[] name) {
+    int16(out, UTF_8);
+    int16(out, entry.method);
+    int16(out, TIME);
+    int16(out, DATE);
+    int32(out, entry.crc);
+    int32(out, entry.compressedSize);
+    int32(out, entry.size);
+    int16(out, name.length);
+    int16(out, 0); // extra
+  }
+
+  @Override
+  public void close() throws IOException {
+    if(this.offset > LIMIT) {
+      throw new IOException("The distribution is too large for a zip archive without zip64 extensions, use a tar archive instead");
+    }
+    final ByteArrayOutputStream end = new ByteArrayOutputStream(22);
+    int32(end, 0x06054b50);
+    int16(end, 0);
+    int16(end, 0);
+    int16(end, this.entries);
+    int16(end, this.entries);
+    int32(end, this.central.size());
+    int32(end, this.offset);
+    int16(end, 0); // comment
+    this.central.writeTo(this.out);
+    end.writeTo(this.out);
+    this.out.close();
+  }
+
+  private static void int16(final ByteArrayOutputStream out, final int value) {
+    out.write(value);
+    out.write(value >>> 8);
+  }
+
+  private static void int32(final ByteArrayOutputStream out, final long value) {
+    out.write((int) value);
+    out.write((int) (value >>> 8));
+    out.write((int) (value >>> 16));
+    out.write((int) (value >>> 24));
+  }
+
+  static final class Entry {
+    final String name;
+    final int method;
+    final long crc;
+    final long compressedSize;
+    final long size;
+    final @Nullable File file;
+    final @Nullable byte[] bytes;
+    /**
+     * If {@link #file} holds compressed contents, to be deleted once written.
+     */
+    final boolean temporary;
+    final int mode;
+
+    Entry(final String name, final int method, final long crc, final long compressedSize, final long size, final @Nullable File file, final @Nullable byte[] bytes, final boolean temporary, final int mode) {
+      this.name = name;
+      this.method = method;
+      this.crc = crc;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.file = file;
+      this.bytes = bytes;
+      this.temporary = temporary;
+      this.mode = mode;
+    }
+  }
+
+  // compressed contents, held in memory until they exceed IN_MEMORY
+  private static final class Spill extends OutputStream {
+    private final File file;
+    @Nullable ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private @Nullable OutputStream out;
+    long size;
+
+    Spill(final File file) {
+      this.file = file;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if(this.bytes != null && this.bytes.size() + len > IN_MEMORY) {
+        this.out = new BufferedOutputStream(Files.newOutputStream(this.file.toPath()));
+        this.bytes.writeTo(this.out);
+        this.bytes = null;
+      }
+      if(this.bytes != null) {
+        this.bytes.write(b, off, len);
+      } else {
+        this.out.write(b, off, len);
+      }
+      this.size += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if(this.out != null) {
+        this.out.close();
+      }
+    }
+
+    void delete() throws IOException {
+      this.close();
+      Files.deleteIfExists(this.file.toPath());
+    }
+  }
+}
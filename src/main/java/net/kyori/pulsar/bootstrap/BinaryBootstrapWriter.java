@@ -0,0 +1,100 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * A writer for binary bootstrap configurations.
+ *
+ * <p>All values are big-endian. A configuration starts with {@link BootstrapConstants#BINARY_MAGIC},
+ * {@link BootstrapConstants#BINARY_VERSION} and the length of the body in bytes. The body holds the
+ * module name, the class name, the paths, the properties (in key order) and the libraries. Paths,
+ * properties and libraries are each preceded by their count, with a library count of {@code -1}
+ * meaning no library list was written. Each path is its name followed by its minimum and maximum
+ * depth, {@code -1} meaning unset. Strings are the length of their UTF-8 encoding in bytes, followed
+ * by that encoding.</p>
+ *
+ * @see BootstrapReader
+ */
+final class BinaryBootstrapWriter {
+  private final OutputStream stream;
+
+  BinaryBootstrapWriter(final OutputStream stream) {
+    this.stream = stream;
+  }
+
+  void write(final String moduleName, final String className, final List<PulsarBootstrapImpl.PathEntryImpl> paths, final Map<String, String> properties, final @Nullable List<String> libraries) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream body = new DataOutputStream(bytes);
+
+    string(body, moduleName);
+    string(body, className);
+
+    body.writeInt(paths.size());
+    for(final PulsarBootstrapImpl.PathEntryImpl path : paths) {
+      string(body, path.getName());
+      body.writeInt(path.getMinDepth() != null ? path.getMinDepth() : -1);
+      body.writeInt(path.getMaxDepth() != null ? path.getMaxDepth() : -1);
+    }
+
+    body.writeInt(properties.size());
+    for(final Map.Entry<String, String> property : new TreeMap<>(properties).entrySet()) {
+      string(body, property.getKey());
+      string(body, property.getValue());
+    }
+
+    if(libraries != null) {
+      body.writeInt(libraries.size());
+      for(final String library : libraries) {
+        string(body, library);
+      }
+    } else {
+      body.writeInt(-1);
+    }
+    body.flush();
+
+    final DataOutputStream out = new DataOutputStream(this.stream);
+    out.writeInt(BootstrapConstants.BINARY_MAGIC);
+    out.writeInt(BootstrapConstants.BINARY_VERSION);
+    out.writeInt(bytes.size());
+    bytes.writeTo(out);
+    out.flush();
+  }
+
+  private static void string(final DataOutputStream out, final String string) throws IOException {
+    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
@@ -28,6 +28,30 @@ public interface BootstrapConstants {
    * The name of the configuration file.
    */
   String CONFIGURATION_FILE_NAME = "bootstrap.xml";
+  /**
+   * The name of the configuration file, when written in the binary format.
+   */
+  String BINARY_CONFIGURATION_FILE_NAME = "bootstrap.bin";
+  /**
+   * The magic number that starts a binary configuration.
+   */
+  int BINARY_MAGIC = 0x50534254; // PSBT
+  /**
+   * The version of the binary configuration format.
+   */
+  int BINARY_VERSION = 1;
+  /**
+   * The name of the classpath index file.
+   */
+  String CLASSPATH_INDEX_FILE_NAME = "classpath.idx";
+  /**
+   * The first line of a classpath index, identifying its format and version.
+   */
+  String CLASSPATH_INDEX_HEADER = "pulsar-classpath-index 1";
+  /**
+   * The name of the root element.
+   */
+  String APPLICATION_ELEMENT_NAME = "application";
   /**
    * The name of the attribute that contains our target module.
    */
@@ -56,4 +80,12 @@ public interface BootstrapConstants {
    * The name of the attribute that contains a property key.
    */
   String PROPERTY_KEY_ATTRIBUTE_NAME = "key";
+  /**
+   * The name of the class data sharing archive file.
+   */
+  String CDS_ARCHIVE_FILE_NAME = "app.jsa";
+  /**
+   * The name of the property that contains the class data sharing archive, relative to the distribution root.
+   */
+  String CDS_ARCHIVE_PROPERTY = "pulsar.cds.archive";
 }
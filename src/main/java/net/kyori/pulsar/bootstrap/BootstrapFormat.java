@@ -0,0 +1,53 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+/**
+ * A bootstrap configuration format.
+ */
+public enum BootstrapFormat {
+  /**
+   * An XML document.
+   */
+  XML(BootstrapConstants.CONFIGURATION_FILE_NAME),
+  /**
+   * A compact binary encoding, readable with {@link BootstrapReader}.
+   */
+  BINARY(BootstrapConstants.BINARY_CONFIGURATION_FILE_NAME);
+
+  private final String fileName;
+
+  BootstrapFormat(final String fileName) {
+    this.fileName = fileName;
+  }
+
+  /**
+   * Gets the name of the configuration file in this format.
+   *
+   * @return the file name
+   */
+  public String getFileName() {
+    return this.fileName;
+  }
+}
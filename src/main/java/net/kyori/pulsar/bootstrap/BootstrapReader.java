@@ -0,0 +1,233 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import javax.annotation.Nullable;
+
+/**
+ * A reference reader for binary bootstrap configurations.
+ *
+ * <p>The reader only depends on the Java standard library, and can be used directly by a launcher.</p>
+ *
+ * @see BootstrapFormat#BINARY
+ */
+public final class BootstrapReader {
+  private BootstrapReader() {
+  }
+
+  /**
+   * Reads a configuration from {@code stream}.
+   *
+   * @param stream the stream
+   * @return the configuration
+   * @throws IOException if the configuration could not be read
+   */
+  public static Configuration read(final InputStream stream) throws IOException {
+    final DataInputStream in = new DataInputStream(stream);
+    header(in.readInt(), in.readInt());
+    final int length = in.readInt();
+    if(length < 0) {
+      throw new IOException("Invalid body length " + length);
+    }
+    final byte[] body = new byte[length];
+    in.readFully(body);
+    return body(ByteBuffer.wrap(body));
+  }
+
+  /**
+   * Reads a configuration from {@code buffer}, such as a memory-mapped file.
+   *
+   * @param buffer the buffer
+   * @return the configuration
+   * @throws IOException if the configuration could not be read
+   */
+  public static Configuration read(final ByteBuffer buffer) throws IOException {
+    final ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    try {
+      header(in.getInt(), in.getInt());
+      final int length = in.getInt();
+      if(length < 0 || length > in.remaining()) {
+        throw new IOException("Invalid body length " + length);
+      }
+      final ByteBuffer body = in.slice();
+      body.limit(length);
+      return body(body);
+    } catch(final BufferUnderflowException e) {
+      throw new IOException("Truncated bootstrap configuration", e);
+    }
+  }
+
+  private static void header(final int magic, final int version) throws IOException {
+    if(magic != BootstrapConstants.BINARY_MAGIC) {
+      throw new IOException("Not a bootstrap configuration");
+    }
+    if(version != BootstrapConstants.BINARY_VERSION) {
+      throw new IOException("Unsupported bootstrap configuration version " + version);
+    }
+  }
+
+  private static Configuration body(final ByteBuffer in) throws IOException {
+    try {
+      final String moduleName = string(in);
+      final String className = string(in);
+
+      final int pathCount = count(in);
+      final List<Path> paths = new ArrayList<>(pathCount);
+      for(int i = 0; i < pathCount; i++) {
+        paths.add(new Path(string(in), depth(in.getInt()), depth(in.getInt())));
+      }
+
+      final int propertyCount = count(in);
+      final Map<String, String> properties = new LinkedHashMap<>(propertyCount * 2);
+      for(int i = 0; i < propertyCount; i++) {
+        properties.put(string(in), string(in));
+      }
+
+      final int libraryCount = in.getInt();
+      List<String> libraries = null;
+      if(libraryCount != -1) {
+        if(libraryCount < 0) {
+          throw new IOException("Invalid count " + libraryCount);
+        }
+        libraries = new ArrayList<>(libraryCount);
+        for(int i = 0; i < libraryCount; i++) {
+          libraries.add(string(in));
+        }
+      }
+
+      return new Configuration(moduleName, className, paths, properties, libraries);
+    } catch(final BufferUnderflowException e) {
+      throw new IOException("Truncated bootstrap configuration", e);
+    }
+  }
+
+  private static int count(final ByteBuffer in) throws IOException {
+    final int count = in.getInt();
+    if(count < 0 || count > in.remaining()) {
+      throw new IOException("Invalid count " + count);
+    }
+    return count;
+  }
+
+  private static OptionalInt depth(final int depth) {
+    return depth == -1 ? OptionalInt.empty() : OptionalInt.of(depth);
+  }
+
+  private static String string(final ByteBuffer in) throws IOException {
+    final int length = count(in);
+    if(in.hasArray()) {
+      final String string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+      in.position(in.position() + length);
+      return string;
+    }
+    final byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * A bootstrap configuration.
+   */
+  public static final class Configuration {
+    private final String moduleName;
+    private final String className;
+    private final List<Path> paths;
+    private final Map<String, String> properties;
+    private final @Nullable List<String> libraries;
+
+    Configuration(final String moduleName, final String className, final List<Path> paths, final Map<String, String> properties, final @Nullable List<String> libraries) {
+      this.moduleName = moduleName;
+      this.className = className;
+      this.paths = Collections.unmodifiableList(paths);
+      this.properties = Collections.unmodifiableMap(properties);
+      this.libraries = libraries == null ? null : Collections.unmodifiableList(libraries);
+    }
+
+    public String getModuleName() {
+      return this.moduleName;
+    }
+
+    public String getClassName() {
+      return this.className;
+    }
+
+    public List<Path> getPaths() {
+      return this.paths;
+    }
+
+    public Map<String, String> getProperties() {
+      return this.properties;
+    }
+
+    /**
+     * Gets the libraries, relative to the distribution root, in classpath order.
+     *
+     * @return the libraries, or {@code null} if no library list was written
+     */
+    public @Nullable List<String> getLibraries() {
+      return this.libraries;
+    }
+  }
+
+  /**
+   * A path to search for modules.
+   */
+  public static final class Path {
+    private final String name;
+    private final OptionalInt minDepth;
+    private final OptionalInt maxDepth;
+
+    Path(final String name, final OptionalInt minDepth, final OptionalInt maxDepth) {
+      this.name = name;
+      this.minDepth = minDepth;
+      this.maxDepth = maxDepth;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public OptionalInt getMinDepth() {
+      return this.minDepth;
+    }
+
+    public OptionalInt getMaxDepth() {
+      return this.maxDepth;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A streaming writer for bootstrap configurations.
+ *
+ * <p>Output only depends on the configuration: properties are written in key order, attributes in
+ * a fixed order, and lines are always separated by {@code \n}.</p>
+ */
+final class BootstrapWriter {
+  private static final String INDENT = "  ";
+  private static final char NEWLINE = '\n';
+  private final Writer writer;
+
+  BootstrapWriter(final OutputStream stream) {
+    this.writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+  }
+
+  void write(final String moduleName, final String className, final List<PulsarBootstrapImpl.PathEntryImpl> paths, final Map<String, String> properties) throws IOException {
+    this.writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+    this.writer.write(NEWLINE);
+
+    this.writer.write('<');
+    this.writer.write(BootstrapConstants.APPLICATION_ELEMENT_NAME);
+    this.attribute(BootstrapConstants.MODULE_ATTRIBUTE_NAME, moduleName);
+    this.attribute(BootstrapConstants.CLASS_ATTRIBUTE_NAME, className);
+    this.writer.write('>');
+    this.writer.write(NEWLINE);
+
+    for(final PulsarBootstrapImpl.PathEntryImpl path : paths) {
+      this.writer.write(INDENT);
+      this.writer.write('<');
+      this.writer.write(BootstrapConstants.PATH_ELEMENT_NAME);
+      if(path.getMinDepth() != null) {
+        this.attribute(BootstrapConstants.PATH_MIN_DEPTH_ATTRIBUTE_NAME, String.valueOf(path.getMinDepth()));
+      }
+      if(path.getMaxDepth() != null) {
+        this.attribute(BootstrapConstants.PATH_MAX_DEPTH_ATTRIBUTE_NAME, String.valueOf(path.getMaxDepth()));
+      }
+      this.writer.write('>');
+      this.text(path.getName(), false);
+      this.end(BootstrapConstants.PATH_ELEMENT_NAME);
+    }
+
+    for(final Map.Entry<String, String> property : new TreeMap<>(properties).entrySet()) {
+      this.writer.write(INDENT);
+      this.writer.write('<');
+      this.writer.write(BootstrapConstants.PROPERTY_ELEMENT_NAME);
+      this.attribute(BootstrapConstants.PROPERTY_KEY_ATTRIBUTE_NAME, property.getKey());
+      this.writer.write('>');
+      this.text(property.getValue(), false);
+      this.end(BootstrapConstants.PROPERTY_ELEMENT_NAME);
+    }
+
+    this.end(BootstrapConstants.APPLICATION_ELEMENT_NAME);
+    this.writer.flush();
+  }
+
+  private void attribute(final String name, final String value) throws IOException {
+    this.writer.write(' ');
+    this.writer.write(name);
+    this.writer.write("=\"");
+    this.text(value, true);
+    this.writer.write('"');
+  }
+
+  private void end(final String name) throws IOException {
+    this.writer.write("</");
+    this.writer.write(name);
+    this.writer.write('>');
+    this.writer.write(NEWLINE);
+  }
+
+  private void text(final String text, final boolean attribute) throws IOException {
+    for(int i = 0, length = text.length(); i < length; i++) {
+      final char c = text.charAt(i);
+      switch(c) {
+        case '<': this.writer.write("&lt;"); break;
+        case '>': this.writer.write("&gt;"); break;
+        case '&': this.writer.write("&amp;"); break;
+        case '"':
+          if(attribute) {
+            this.writer.write("&quot;");
+          } else {
+            this.writer.write(c);
+          }
+          break;
+        case '\t':
+        case '\n':
+        case '\r':
+          if(attribute) {
+            this.writer.write("&#" + (int) c + ';');
+          } else {
+            this.writer.write(c);
+          }
+          break;
+        default: this.writer.write(c); break;
+      }
+    }
+  }
+}
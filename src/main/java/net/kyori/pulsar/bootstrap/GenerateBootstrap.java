@@ -0,0 +1,154 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates a bootstrap configuration.
+ */
+@CacheableTask
+public class GenerateBootstrap extends DefaultTask {
+  private String moduleName;
+  private String className;
+  private List<PulsarBootstrapImpl.PathEntryImpl> paths = new ArrayList<>();
+  private Map<String, String> properties = new TreeMap<>();
+  private BootstrapFormat format = BootstrapFormat.XML;
+  private @Nullable Callable<List<String>> libraries;
+  private File destination;
+
+  @Input
+  public String getModuleName() {
+    return this.moduleName;
+  }
+
+  public void setModuleName(final String moduleName) {
+    this.moduleName = moduleName;
+  }
+
+  @Input
+  public String getClassName() {
+    return this.className;
+  }
+
+  public void setClassName(final String className) {
+    this.className = className;
+  }
+
+  @Input
+  public List<PulsarBootstrapImpl.PathEntryImpl> getPaths() {
+    return this.paths;
+  }
+
+  public void setPaths(final List<PulsarBootstrapImpl.PathEntryImpl> paths) {
+    this.paths = paths;
+  }
+
+  /**
+   * Gets the properties written to the bootstrap configuration.
+   *
+   * <p>Not named {@code getProperties}, which would hide the task's own properties in Groovy.</p>
+   *
+   * @return the properties
+   */
+  @Input
+  public Map<String, String> getBootstrapProperties() {
+    return this.properties;
+  }
+
+  public void setBootstrapProperties(final Map<String, String> properties) {
+    this.properties = new TreeMap<>(properties);
+  }
+
+  @Input
+  public BootstrapFormat getFormat() {
+    return this.format;
+  }
+
+  public void setFormat(final BootstrapFormat format) {
+    this.format = format;
+  }
+
+  /**
+   * Gets the libraries, relative to the distribution root, in classpath order.
+   *
+   * <p>Libraries are only written in the {@link BootstrapFormat#BINARY binary} format.</p>
+   *
+   * @return the libraries, or {@code null} if no library list should be written
+   * @throws Exception if the libraries could not be computed
+   */
+  @Input
+  @Optional
+  public @Nullable List<String> getLibraries() throws Exception {
+    return this.libraries != null ? this.libraries.call() : null;
+  }
+
+  public void setLibraries(final @Nullable Callable<List<String>> libraries) {
+    this.libraries = libraries;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  public void generate() throws Exception {
+    try(final OutputStream stream = new BufferedOutputStream(new FileOutputStream(this.destination))) {
+      switch(this.format) {
+        case XML:
+          new BootstrapWriter(stream).write(this.moduleName, this.className, this.paths, this.properties);
+          break;
+        case BINARY:
+          new BinaryBootstrapWriter(stream).write(this.moduleName, this.className, this.paths, this.properties, this.getLibraries());
+          break;
+      }
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while writing bootstrap configuration", e);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Hashes;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Generates a classpath index.
+ *
+ * <p>The index lists every jar of the distribution in classpath order, one per line, as its path
+ * relative to the distribution root, its size in bytes and its SHA-256 hash, separated by tabs. The
+ * first line is a header identifying the format and its version.</p>
+ */
+@CacheableTask
+public class GenerateClasspathIndex extends AbstractDistributionTask {
+  private File destination;
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  public void generate() {
+    try(final Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(this.destination.toPath()), StandardCharsets.UTF_8))) {
+      writer.write(BootstrapConstants.CLASSPATH_INDEX_HEADER);
+      writer.write('\n');
+      for(final File file : this.getClasspath()) {
+        writer.write(this.path(file));
+        writer.write('\t');
+        writer.write(String.valueOf(file.length()));
+        writer.write('\t');
+        writer.write(Hashes.sha256(file));
+        writer.write('\n');
+      }
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while writing classpath index", e);
+    }
+  }
+}
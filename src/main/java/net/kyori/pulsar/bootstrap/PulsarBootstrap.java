@@ -23,7 +23,7 @@
  */
 package net.kyori.pulsar.bootstrap;
 
-import groovy.lang.Closure;
+import org.gradle.api.Action;
 
 import javax.annotation.Nullable;
 
@@ -32,16 +32,42 @@ public interface PulsarBootstrap {
 
   PulsarBootstrap setClassName(final String className);
 
-  PulsarBootstrap paths(final Closure<?> closure);
+  /**
+   * Sets if a classpath index should be generated alongside the bootstrap configuration.
+   *
+   * @param index if a classpath index should be generated
+   * @return this
+   */
+  PulsarBootstrap setIndex(final boolean index);
 
-  PulsarBootstrap properties(final Closure<?> closure);
+  /**
+   * Sets the format the bootstrap configuration is written in.
+   *
+   * @param format the format
+   * @return this
+   */
+  PulsarBootstrap setFormat(final BootstrapFormat format);
+
+  /**
+   * Sets if the libraries of the distribution should be listed in the bootstrap configuration.
+   *
+   * <p>Libraries are only listed in the {@link BootstrapFormat#BINARY binary} format.</p>
+   *
+   * @param libraries if the libraries should be listed
+   * @return this
+   */
+  PulsarBootstrap setLibraries(final boolean libraries);
+
+  PulsarBootstrap paths(final Action<? super Paths> action);
+
+  PulsarBootstrap properties(final Action<? super Properties> action);
 
   interface Paths {
     default void add(final String name) {
       this.add(name, null);
     }
 
-    void add(final String name, @Nullable final Closure<?> closure);
+    void add(final String name, @Nullable final Action<? super Entry> action);
 
     interface Entry {
       void setMinDepth(final int minDepth);
@@ -23,34 +23,36 @@
  */
 package net.kyori.pulsar.bootstrap;
 
-import groovy.lang.Closure;
-import org.gradle.api.logging.Logger;
-import org.gradle.util.ConfigureUtil;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-
-import java.io.File;
-import java.io.IOException;
+import org.gradle.api.Action;
+import org.gradle.api.model.ObjectFactory;
+
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.OptionalInt;
+import java.util.Objects;
+import java.util.TreeMap;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
 
 public class PulsarBootstrapImpl implements PulsarBootstrap {
   private final List<PathEntryImpl> paths = new ArrayList<>();
   private final Map<String, String> properties = new HashMap<>();
+  private final Paths pathsImpl;
+  private final Properties propertiesImpl = new PropertiesImpl();
   private String moduleName;
   private String className;
+  private boolean index = true;
+  private BootstrapFormat format = BootstrapFormat.XML;
+  private boolean libraries;
+
+  @Inject
+  public PulsarBootstrapImpl(final ObjectFactory objects) {
+    // decorated, so that Gradle generates closure-accepting variants of its methods
+    this.pathsImpl = objects.newInstance(PathsImpl.class, this.paths);
+  }
 
   @Override
   public PulsarBootstrap setModuleName(final String moduleName) {
@@ -65,78 +67,92 @@ public class PulsarBootstrapImpl implements PulsarBootstrap {
   }
 
   @Override
-  public PulsarBootstrap paths(final Closure<?> closure) {
-    ConfigureUtil.configure(closure, new PathsImpl());
+  public PulsarBootstrap setIndex(final boolean index) {
+    this.index = index;
     return this;
   }
 
+  public boolean isIndex() {
+    return this.index;
+  }
+
   @Override
-  public PulsarBootstrap properties(final Closure<?> closure) {
-    ConfigureUtil.configure(closure, new PropertiesImpl());
+  public PulsarBootstrap setFormat(final BootstrapFormat format) {
+    this.format = format;
     return this;
   }
 
-  public boolean write(final Logger logger, final File file) {
-    if(this.moduleName == null || this.className == null) {
-      return false;
-    }
+  public BootstrapFormat getFormat() {
+    return this.format;
+  }
 
-    try {
-      if(file.exists()) {
-        file.delete();
-      }
-      file.createNewFile();
-    } catch(final IOException e) {
-      logger.error("Encountered an exception while writing bootstrap configuration", e);
-      return false;
-    }
+  @Override
+  public PulsarBootstrap setLibraries(final boolean libraries) {
+    this.libraries = libraries;
+    return this;
+  }
+
+  public boolean isLibraries() {
+    return this.libraries;
+  }
 
-    try {
-      final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+  @Override
+  public PulsarBootstrap paths(final Action<? super Paths> action) {
+    action.execute(this.pathsImpl);
+    return this;
+  }
 
-      final Element application = document.createElement("application");
-      document.appendChild(application);
+  @Override
+  public PulsarBootstrap properties(final Action<? super Properties> action) {
+    action.execute(this.propertiesImpl);
+    return this;
+  }
 
-      application.setAttribute(BootstrapConstants.MODULE_ATTRIBUTE_NAME, this.moduleName);
-      application.setAttribute(BootstrapConstants.CLASS_ATTRIBUTE_NAME, this.className);
+  /**
+   * Tests if enough has been configured to generate a bootstrap configuration.
+   *
+   * @return {@code true} if a bootstrap configuration should be generated
+   */
+  public boolean isConfigured() {
+    return this.moduleName != null && this.className != null;
+  }
 
-      for(final PathEntryImpl entry : this.paths) {
-        entry.write(document, application);
-      }
+  /**
+   * Configures {@code task} to generate this bootstrap configuration.
+   *
+   * @param task the task
+   */
+  public void configure(final GenerateBootstrap task) {
+    task.setModuleName(this.moduleName);
+    task.setClassName(this.className);
+    task.setPaths(new ArrayList<>(this.paths));
+    task.setBootstrapProperties(new TreeMap<>(this.properties));
+    task.setFormat(this.format);
+  }
 
-      for(final Map.Entry<String, String> entry : this.properties.entrySet()) {
-        final Element property = document.createElement(BootstrapConstants.PROPERTY_ELEMENT_NAME);
-        property.setAttribute(BootstrapConstants.PROPERTY_KEY_ATTRIBUTE_NAME, entry.getKey());
-        property.appendChild(document.createTextNode(entry.getValue()));
-        application.appendChild(property);
-      }
+  public static class PathsImpl implements Paths {
+    private final List<PathEntryImpl> paths;
 
-      final Transformer transformer = TransformerFactory.newInstance().newTransformer();
-      transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-      transformer.setOutputProperty(OutputKeys.STANDALONE, "no");
-      transformer.transform(new DOMSource(document), new StreamResult(file));
-    } catch(final ParserConfigurationException | TransformerException e) {
-      logger.error("Encountered an exception while writing bootstrap configuration", e);
-      return false;
+    @Inject
+    public PathsImpl(final List<PathEntryImpl> paths) {
+      this.paths = paths;
     }
-    return true;
-  }
 
-  public class PathsImpl implements Paths {
     @Override
-    public void add(final String name, final Closure<?> closure) {
+    public void add(final String name, final @Nullable Action<? super Entry> action) {
       final PathEntryImpl entry = new PathEntryImpl(name);
-      PulsarBootstrapImpl.this.paths.add(entry);
-      if(closure != null) {
-        ConfigureUtil.configure(closure, entry);
+      this.paths.add(entry);
+      if(action != null) {
+        action.execute(entry);
       }
     }
   }
 
-  public static class PathEntryImpl implements Paths.Entry {
+  public static class PathEntryImpl implements Paths.Entry, Serializable {
+    private static final long serialVersionUID = 1L;
     private final String name;
-    private OptionalInt minDepth = OptionalInt.empty();
-    private OptionalInt maxDepth = OptionalInt.empty();
+    private @Nullable Integer minDepth;
+    private @Nullable Integer maxDepth;
 
     PathEntryImpl(final String name) {
       this.name = name;
@@ -144,24 +160,43 @@ public class PulsarBootstrapImpl implements PulsarBootstrap {
 
     @Override
     public void setMinDepth(final int minDepth) {
-      this.minDepth = OptionalInt.of(minDepth);
+      this.minDepth = minDepth;
     }
 
     @Override
     public void setMaxDepth(final int maxDepth) {
-      this.maxDepth = OptionalInt.of(maxDepth);
+      this.maxDepth = maxDepth;
+    }
+
+    public String getName() {
+      return this.name;
     }
 
-    void write(final Document document, final Element application) {
-      final Element path = document.createElement(BootstrapConstants.PATH_ELEMENT_NAME);
-      path.appendChild(document.createTextNode(this.name));
-      if(this.minDepth.isPresent()) {
-        path.setAttribute(BootstrapConstants.PATH_MIN_DEPTH_ATTRIBUTE_NAME, String.valueOf(this.minDepth.getAsInt()));
+    public @Nullable Integer getMinDepth() {
+      return this.minDepth;
+    }
+
+    public @Nullable Integer getMaxDepth() {
+      return this.maxDepth;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) {
+        return true;
       }
-      if(this.maxDepth.isPresent()) {
-        path.setAttribute(BootstrapConstants.PATH_MAX_DEPTH_ATTRIBUTE_NAME, String.valueOf(this.maxDepth.getAsInt()));
+      if(other == null || this.getClass() != other.getClass()) {
+        return false;
       }
-      application.appendChild(path);
+      final PathEntryImpl that = (PathEntryImpl) other;
+      return this.name.equals(that.name)
+        && Objects.equals(this.minDepth, that.minDepth)
+        && Objects.equals(this.maxDepth, that.maxDepth);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.name, this.minDepth, this.maxDepth);
     }
   }
 
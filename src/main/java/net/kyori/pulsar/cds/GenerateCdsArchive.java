@@ -0,0 +1,304 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.cds;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Directories;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates a class data sharing (AppCDS) archive for a distribution.
+ *
+ * <p>The classpath is staged in the same layout as the distribution, and the main class is run once
+ * with {@link #TRAINING_PROPERTY} set, recording every class it loads. An archive of those classes is
+ * then dumped. The application is expected to exit on its own once it has warmed up.</p>
+ *
+ * <p>The archive is dumped against a classpath relative to the distribution root, and is only used
+ * by the JVM when launched from the distribution root with the same classpath, in the same order.</p>
+ *
+ * <p>Archiving application classes needs Java {@value #MINIMUM_VERSION} or later, both to dump the
+ * archive and to run the distribution with it.</p>
+ */
+public class GenerateCdsArchive extends AbstractDistributionTask {
+  /**
+   * The system property set while training.
+   */
+  public static final String TRAINING_PROPERTY = "pulsar.cds.training";
+  /**
+   * The first Java version archiving application classes.
+   */
+  public static final int MINIMUM_VERSION = 10;
+  // the properties identifying a runtime: an archive is only usable by the runtime which dumped it
+  private static final List<String> RUNTIME_PROPERTIES = Arrays.asList("java.vm.vendor", "java.version", "java.vm.version");
+  private String mainClass;
+  private List<String> args = new ArrayList<>();
+  private List<String> jvmArgs = new ArrayList<>();
+  private @Nullable String executable;
+  private @Nullable Properties runtime;
+  private File classList;
+  private File archive;
+
+  // the archive is only used with the classpath in the same order
+  @Classpath
+  @Override
+  public ConfigurableFileCollection getClasspath() {
+    return super.getClasspath();
+  }
+
+  @Input
+  public String getMainClass() {
+    return this.mainClass;
+  }
+
+  public void setMainClass(final String mainClass) {
+    this.mainClass = mainClass;
+  }
+
+  @Input
+  public List<String> getArgs() {
+    return this.args;
+  }
+
+  public void setArgs(final List<String> args) {
+    this.args = args;
+  }
+
+  @Input
+  public List<String> getJvmArgs() {
+    return this.jvmArgs;
+  }
+
+  public void setJvmArgs(final List<String> jvmArgs) {
+    this.jvmArgs = jvmArgs;
+  }
+
+  /**
+   * Gets the {@code java} executable used to train and dump the archive.
+   *
+   * <p>This must be the same Java runtime the distribution is run with.</p>
+   *
+   * @return the executable, or {@code null} to use the runtime Gradle is running on
+   */
+  @Input
+  @Optional
+  public @Nullable String getExecutable() {
+    return this.executable;
+  }
+
+  public void setExecutable(final @Nullable String executable) {
+    this.executable = executable;
+    this.runtime = null;
+  }
+
+  /**
+   * Gets the vendor and version of the runtime the archive is dumped with.
+   *
+   * <p>When an {@link #getExecutable() executable} is set, it is run once to read them, so that
+   * switching runtimes invalidates the archive even though the executable path is unchanged.</p>
+   *
+   * @return the runtime vendor and versions
+   */
+  @Input
+  public String getRuntime() {
+    return runtime(this.runtimeProperties());
+  }
+
+  private Properties runtimeProperties() {
+    if(this.runtime == null) {
+      this.runtime = this.executable == null ? System.getProperties() : this.probe(this.executable);
+    }
+    return this.runtime;
+  }
+
+  @OutputFile
+  public File getClassList() {
+    return this.classList;
+  }
+
+  public void setClassList(final File classList) {
+    this.classList = classList;
+  }
+
+  @OutputFile
+  public File getArchive() {
+    return this.archive;
+  }
+
+  public void setArchive(final File archive) {
+    this.archive = archive;
+  }
+
+  @TaskAction
+  public void generate() throws IOException {
+    final String version = this.runtimeProperties().getProperty("java.version");
+    if(feature(version) < MINIMUM_VERSION) {
+      throw new GradleException("Generating a class data sharing archive needs Java " + MINIMUM_VERSION + " or later, but "
+        + (this.executable != null ? this.executable : "the runtime Gradle is running on") + " is Java " + version
+        + ": set the executable of " + this.getName() + " to a newer runtime, or disable cds");
+    }
+
+    final File root = this.getTemporaryDir();
+    Directories.clear(root.toPath());
+
+    final List<String> paths = new ArrayList<>();
+    for(final File file : this.getClasspath()) {
+      final String path = this.path(file);
+      final File target = new File(root, path);
+      target.getParentFile().mkdirs();
+      Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      paths.add(path);
+    }
+    final String classpath = String.join(File.pathSeparator, paths);
+    final String executable = this.executable != null ? this.executable : new File(System.getProperty("java.home"), "bin/java").getAbsolutePath();
+    this.getLogger().info("Generating class data sharing archive with {}", this.getRuntime());
+
+    final File classList = new File(root, this.classList.getName());
+    final List<String> train = new ArrayList<>();
+    train.add("-Xshare:off");
+    train.add("-XX:DumpLoadedClassList=" + classList.getName());
+    train.add("-D" + TRAINING_PROPERTY + "=true");
+    train.addAll(this.jvmArgs);
+    train.add("-cp");
+    train.add(classpath);
+    train.add(this.mainClass);
+    train.addAll(this.args);
+    this.java(root, executable, train);
+
+    if(!classList.isFile()) {
+      throw new GradleException("Training run did not produce a class list");
+    }
+
+    final File archive = new File(root, this.archive.getName());
+    final List<String> dump = new ArrayList<>();
+    dump.add("-Xshare:dump");
+    dump.add("-XX:SharedClassListFile=" + classList.getName());
+    dump.add("-XX:SharedArchiveFile=" + archive.getName());
+    dump.add("-cp");
+    dump.add(classpath);
+    this.java(root, executable, dump);
+
+    Files.copy(classList.toPath(), this.classList.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(archive.toPath(), this.archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  // reads the runtime properties of an executable from the settings it prints
+  private Properties probe(final String executable) {
+    final List<String> command = Arrays.asList(executable, "-XshowSettings:properties", "-version");
+    final Properties properties = new Properties();
+    try {
+      final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      try(final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+        String line;
+        while((line = reader.readLine()) != null) {
+          final int separator = line.indexOf(" = ");
+          if(separator != -1) {
+            properties.setProperty(line.substring(0, separator).trim(), line.substring(separator + 3).trim());
+          }
+        }
+      }
+      process.waitFor();
+    } catch(final IOException e) {
+      throw new GradleException("Could not run '" + String.join(" ", command) + "'", e);
+    } catch(final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GradleException("Interrupted while waiting for '" + String.join(" ", command) + "'", e);
+    }
+    for(final String property : RUNTIME_PROPERTIES) {
+      if(properties.getProperty(property) == null) {
+        throw new GradleException("Could not read " + property + " from '" + String.join(" ", command) + "'");
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * Gets the feature release of a {@code java.version}: {@code 8} for {@code 1.8.0_292}, and
+   * {@code 11} for {@code 11.0.2}.
+   *
+   * @param version the version
+   * @return the feature release, or {@code -1} if it could not be read
+   */
+  static int feature(final String version) {
+    final String feature = version.startsWith("1.") ? version.substring(2) : version;
+    int end = 0;
+    while(end < feature.length() && Character.isDigit(feature.charAt(end))) {
+      end++;
+    }
+    return end == 0 ? -1 : Integer.parseInt(feature.substring(0, end));
+  }
+
+  private static String runtime(final Properties properties) {
+    final List<String> values = new ArrayList<>(RUNTIME_PROPERTIES.size());
+    for(final String property : RUNTIME_PROPERTIES) {
+      values.add(properties.getProperty(property));
+    }
+    return String.join(" ", values);
+  }
+
+  private void java(final File workingDir, final String executable, final List<String> args) throws IOException {
+    final List<String> command = new ArrayList<>(args.size() + 1);
+    command.add(executable);
+    command.addAll(args);
+    final Process process = new ProcessBuilder(command)
+      .directory(workingDir)
+      .redirectErrorStream(true)
+      .start();
+    try(final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+      String line;
+      while((line = reader.readLine()) != null) {
+        this.getLogger().info(line);
+      }
+    }
+    try {
+      final int exit = process.waitFor();
+      if(exit != 0) {
+        throw new GradleException("'" + String.join(" ", command) + "' finished with non-zero exit value " + exit);
+      }
+    } catch(final InterruptedException e) {
+      process.destroy();
+      Thread.currentThread().interrupt();
+      throw new GradleException("Interrupted while waiting for '" + String.join(" ", command) + "'", e);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.delta;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Applies a delta bundle to an installed distribution.
+ *
+ * <p>This class is copied into every delta bundle as its main class, and so must only depend on the
+ * JDK and must not declare nested classes. A bundle is applied with
+ * {@code java -jar <bundle> <distribution directory>}.</p>
+ *
+ * <p>Every file touched by the delta is verified against its expected hash before anything is
+ * modified, so a bundle is never applied to a distribution it was not generated against. Applying a
+ * bundle a second time is a no-op.</p>
+ */
+public final class ApplyDelta {
+  /**
+   * The name of the entry listing the changes of a delta bundle.
+   */
+  public static final String DELTA_ENTRY_NAME = "pulsar-delta.txt";
+  /**
+   * The header of the delta list.
+   */
+  public static final String DELTA_HEADER = "pulsar-delta 1";
+  /**
+   * The directory within the bundle containing added and changed files.
+   */
+  public static final String FILES_DIRECTORY_NAME = "files/";
+  /**
+   * A file which is not present in the previous distribution: {@code A <path> <size> <sha256>}.
+   */
+  public static final char ADDED = 'A';
+  /**
+   * A file whose contents differ from the previous distribution: {@code C <path> <size> <sha256> <previous sha256>}.
+   */
+  public static final char CHANGED = 'C';
+  /**
+   * A file which is not present in the current distribution: {@code R <path> <previous sha256>}.
+   */
+  public static final char REMOVED = 'R';
+  private static final String SUFFIX = ".pulsar-delta";
+
+  private ApplyDelta() {
+  }
+
+  public static void main(final String[] args) throws IOException, URISyntaxException {
+    if(args.length != 1) {
+      System.err.println("usage: java -jar <bundle> <distribution directory>");
+      System.exit(2);
+      return;
+    }
+    final Path bundle = Paths.get(ApplyDelta.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    final List<String> problems = apply(bundle, Paths.get(args[0]));
+    if(!problems.isEmpty()) {
+      for(final String problem : problems) {
+        System.err.println(problem);
+      }
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Applies {@code bundle} to {@code distribution}.
+   *
+   * @param bundle the bundle
+   * @param distribution the distribution directory
+   * @return problems which prevented the bundle from being applied, empty if it was applied
+   * @throws IOException if an exception is encountered while applying
+   */
+  public static List<String> apply(final Path bundle, final Path distribution) throws IOException {
+    // a relative root such as "." normalizes to an empty path, which no entry starts with
+    final Path root = distribution.toAbsolutePath().normalize();
+    try(final ZipFile zip = new ZipFile(bundle.toFile())) {
+      final ZipEntry list = zip.getEntry(DELTA_ENTRY_NAME);
+      if(list == null) {
+        throw new IOException(bundle + " is not a delta bundle");
+      }
+      final List<String[]> changes = new ArrayList<>();
+      try(final BufferedReader reader = new BufferedReader(new InputStreamReader(zip.getInputStream(list), StandardCharsets.UTF_8))) {
+        if(!DELTA_HEADER.equals(reader.readLine())) {
+          throw new IOException(bundle + " has an unsupported delta format");
+        }
+        String line;
+        while((line = reader.readLine()) != null) {
+          if(!line.isEmpty()) {
+            changes.add(line.split("\t"));
+          }
+        }
+      }
+
+      // verify everything first, so that a mismatched distribution is left untouched
+      final List<String> problems = new ArrayList<>();
+      for(final String[] change : changes) {
+        final Path path = resolve(root, change[1]);
+        final String current = Files.isRegularFile(path) ? sha256(path) : null;
+        switch(change[0].charAt(0)) {
+          case ADDED:
+            if(current != null && !current.equals(change[3])) {
+              problems.add(change[1] + " already exists with unexpected contents");
+            }
+            break;
+          case CHANGED:
+            if(current == null) {
+              problems.add(change[1] + " does not exist");
+            } else if(!current.equals(change[3]) && !current.equals(change[4])) {
+              problems.add(change[1] + " has unexpected contents");
+            }
+            break;
+          case REMOVED:
+            if(current != null && !current.equals(change[2])) {
+              problems.add(change[1] + " has unexpected contents");
+            }
+            break;
+          default:
+            throw new IOException("Unknown change " + change[0]);
+        }
+      }
+      if(!problems.isEmpty()) {
+        return problems;
+      }
+
+      final byte[] buffer = new byte[64 * 1024];
+      for(final String[] change : changes) {
+        final Path path = resolve(root, change[1]);
+        if(change[0].charAt(0) == REMOVED) {
+          // already removed when a bundle is applied again, along with its directory
+          if(Files.deleteIfExists(path)) {
+            prune(root, path.getParent());
+          }
+        } else if(!Files.isRegularFile(path) || !sha256(path).equals(change[3])) {
+          final ZipEntry entry = zip.getEntry(FILES_DIRECTORY_NAME + change[1]);
+          if(entry == null) {
+            throw new IOException(bundle + " is missing " + change[1]);
+          }
+          Files.createDirectories(path.getParent());
+          final Path temporary = path.resolveSibling(path.getFileName() + SUFFIX);
+          try(final InputStream is = zip.getInputStream(entry); final OutputStream os = Files.newOutputStream(temporary)) {
+            int read;
+            while((read = is.read(buffer)) != -1) {
+              os.write(buffer, 0, read);
+            }
+          }
+          if(!sha256(temporary).equals(change[3])) {
+            Files.delete(temporary);
+            throw new IOException(bundle + " contains a corrupt copy of " + change[1]);
+          }
+          Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+      }
+      return problems;
+    }
+  }
+
+  private static Path resolve(final Path root, final String name) throws IOException {
+    final Path path = root.resolve(name).normalize();
+    if(!path.startsWith(root)) {
+      throw new IOException(name + " is outside of the distribution");
+    }
+    return path;
+  }
+
+  // removes directories left empty by a removal, up to the distribution root
+  private static void prune(final Path root, Path directory) throws IOException {
+    while(directory != null && !directory.equals(root)) {
+      try(final DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+        if(children.iterator().hasNext()) {
+          return;
+        }
+      }
+      Files.delete(directory);
+      directory = directory.getParent();
+    }
+  }
+
+  private static String sha256(final Path path) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch(final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    final byte[] buffer = new byte[64 * 1024];
+    try(final InputStream is = Files.newInputStream(path)) {
+      int read;
+      while((read = is.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    final StringBuilder sb = new StringBuilder(64);
+    for(final byte b : digest.digest()) {
+      sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return sb.toString();
+  }
+}
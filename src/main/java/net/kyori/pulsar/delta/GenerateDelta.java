@@ -0,0 +1,237 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.delta;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.bootstrap.BootstrapConstants;
+import net.kyori.pulsar.util.Hashes;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates a delta bundle, containing the files which were added or changed since a previous
+ * distribution and a list of files which were removed.
+ *
+ * <p>The previous distribution is described by a manifest in the classpath index format, such as the
+ * {@link #getManifest() manifest} generated alongside a previous bundle, or the classpath index of a
+ * previous distribution. Without a previous manifest, every file is included.</p>
+ *
+ * <p>A classpath index does not list resources, so when the previous manifest lists none of them,
+ * resources are left out of the delta rather than being added over the files already installed.</p>
+ *
+ * <p>The bundle is an executable jar which applies itself, see {@link ApplyDelta}.</p>
+ */
+@CacheableTask
+public class GenerateDelta extends AbstractDistributionTask {
+  private static final long TIME = 318211200000L;
+  private File previous;
+  private File manifest;
+  private File destination;
+
+  /**
+   * Gets the manifest of the previous distribution.
+   *
+   * @return the manifest
+   */
+  @Nullable
+  @Optional
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  public File getPrevious() {
+    return this.previous;
+  }
+
+  public void setPrevious(@Nullable final File previous) {
+    this.previous = previous;
+  }
+
+  /**
+   * Gets the manifest of the current distribution, to be used as the previous manifest of the next delta.
+   *
+   * @return the manifest
+   */
+  @OutputFile
+  public File getManifest() {
+    return this.manifest;
+  }
+
+  public void setManifest(final File manifest) {
+    this.manifest = manifest;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  public void generate() {
+    try {
+      final Map<String, File> files = new LinkedHashMap<>();
+      for(final File file : this.getClasspath()) {
+        files.put(this.path(file), file);
+      }
+      final Set<String> resources = new HashSet<>();
+      for(final File file : this.getResources()) {
+        files.put(file.getName(), file);
+        resources.add(file.getName());
+      }
+
+      final Map<String, String> current = new LinkedHashMap<>();
+      try(final Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(this.manifest.toPath()), StandardCharsets.UTF_8))) {
+        writer.write(BootstrapConstants.CLASSPATH_INDEX_HEADER);
+        writer.write('\n');
+        for(final Map.Entry<String, File> entry : files.entrySet()) {
+          final String hash = Hashes.sha256(entry.getValue());
+          current.put(entry.getKey(), hash);
+          writer.write(entry.getKey() + '\t' + entry.getValue().length() + '\t' + hash + '\n');
+        }
+      }
+
+      final Map<String, String> previous = this.previous != null ? read(this.previous) : new LinkedHashMap<>();
+      // a baseline without resources is a classpath index, which cannot tell us if they changed
+      final boolean diffResources = this.previous == null || resources.stream().anyMatch(previous::containsKey);
+      final StringBuilder delta = new StringBuilder(ApplyDelta.DELTA_HEADER).append('\n');
+      final List<String> included = new ArrayList<>();
+      for(final Map.Entry<String, String> entry : current.entrySet()) {
+        final String path = entry.getKey();
+        if(!diffResources && resources.contains(path)) {
+          continue;
+        }
+        final String hash = entry.getValue();
+        final String before = previous.get(path);
+        if(before == null) {
+          delta.append(ApplyDelta.ADDED).append('\t').append(path).append('\t').append(files.get(path).length()).append('\t').append(hash).append('\n');
+          included.add(path);
+        } else if(!before.equals(hash)) {
+          delta.append(ApplyDelta.CHANGED).append('\t').append(path).append('\t').append(files.get(path).length()).append('\t').append(hash).append('\t').append(before).append('\n');
+          included.add(path);
+        }
+      }
+      for(final Map.Entry<String, String> entry : previous.entrySet()) {
+        if(!current.containsKey(entry.getKey())) {
+          delta.append(ApplyDelta.REMOVED).append('\t').append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+        }
+      }
+
+      this.bundle(delta.toString(), included, files);
+      this.getLogger().info("Delta contains {} of {} files", included.size(), current.size());
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while generating delta", e);
+    }
+  }
+
+  private void bundle(final String delta, final List<String> included, final Map<String, File> files) throws IOException {
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, ApplyDelta.class.getName());
+    try(final JarOutputStream jar = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(this.destination.toPath())))) {
+      jar.putNextEntry(entry("META-INF/MANIFEST.MF"));
+      manifest.write(jar);
+      final String tool = ApplyDelta.class.getName().replace('.', '/') + ".class";
+      jar.putNextEntry(entry(tool));
+      try(final InputStream is = ApplyDelta.class.getClassLoader().getResourceAsStream(tool)) {
+        copy(is, jar);
+      }
+      jar.putNextEntry(entry(ApplyDelta.DELTA_ENTRY_NAME));
+      jar.write(delta.getBytes(StandardCharsets.UTF_8));
+      for(final String path : included) {
+        jar.putNextEntry(entry(ApplyDelta.FILES_DIRECTORY_NAME + path));
+        try(final InputStream is = Files.newInputStream(files.get(path).toPath())) {
+          copy(is, jar);
+        }
+      }
+    }
+  }
+
+  private static JarEntry entry(final String name) {
+    final JarEntry entry = new JarEntry(name);
+    entry.setTime(TIME);
+    return entry;
+  }
+
+  private static void copy(final InputStream is, final JarOutputStream os) throws IOException {
+    final byte[] buffer = new byte[64 * 1024];
+    int read;
+    while((read = is.read(buffer)) != -1) {
+      os.write(buffer, 0, read);
+    }
+  }
+
+  // reads a manifest in the classpath index format into a map of path to hash
+  private static Map<String, String> read(final File file) throws IOException {
+    final Map<String, String> entries = new LinkedHashMap<>();
+    try(final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      if(!BootstrapConstants.CLASSPATH_INDEX_HEADER.equals(reader.readLine())) {
+        throw new GradleException(file + " is not a classpath index");
+      }
+      String line;
+      int number = 1;
+      while((line = reader.readLine()) != null) {
+        number++;
+        if(!line.isEmpty()) {
+          final String[] parts = line.split("\t");
+          if(parts.length != 3) {
+            throw new GradleException("Malformed entry on line " + number + " of " + file + ": expected 3 fields but found " + parts.length);
+          }
+          entries.put(parts[0], parts[2]);
+        }
+      }
+    }
+    return entries;
+  }
+}
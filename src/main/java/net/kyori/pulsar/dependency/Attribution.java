@@ -0,0 +1,179 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attributes the selected libraries to the first-level dependencies of the resolved configurations.
+ *
+ * <p>A library is introduced by the first-level dependency nearest to it: the graphs are walked
+ * breadth first from the first-level dependencies, in declaration order, and the first to reach a
+ * library introduces it. The subtree of a first-level dependency is every selected library reachable
+ * from it, and so may overlap with the subtrees of others.</p>
+ *
+ * <p>The graphs are walked as they are when selecting libraries: a dependency pruned by the rules is
+ * not walked through. Every first-level dependency is attributed in a single walk, which carries the
+ * set of first-level dependencies reaching each component, and only walks a component again when
+ * that set grows.</p>
+ */
+public final class Attribution {
+  private final Map<File, String> introducers = new LinkedHashMap<>();
+  private final Map<String, Set<File>> subtrees = new LinkedHashMap<>();
+
+  Attribution(final Iterable<ResolvedComponentResult> roots, final Map<ComponentIdentifier, List<File>> files, final DependencyRules rules) {
+    final List<String> names = new ArrayList<>();
+    final Map<String, Integer> indices = new HashMap<>();
+    final Map<ComponentIdentifier, BitSet> reached = new HashMap<>();
+    final Map<ComponentIdentifier, String> introducers = new HashMap<>();
+    final Set<ComponentIdentifier> pruned = new HashSet<>();
+    final Set<ComponentIdentifier> decided = new HashSet<>();
+    final Deque<Origin> queue = new ArrayDeque<>();
+    for(final ResolvedComponentResult root : roots) {
+      // a root reached again through a cycle is not walked through
+      decided.add(root.getId());
+      pruned.add(root.getId());
+      for(final ResolvedComponentResult child : children(root)) {
+        final String name = child.getId().getDisplayName();
+        final Integer index = indices.computeIfAbsent(name, key -> {
+          names.add(key);
+          return names.size() - 1;
+        });
+        final BitSet origins = new BitSet();
+        origins.set(index);
+        queue.add(new Origin(child, origins));
+      }
+    }
+    while(!queue.isEmpty()) {
+      final Origin origin = queue.poll();
+      final ComponentIdentifier id = origin.component.getId();
+      final BitSet origins = reached.computeIfAbsent(id, key -> new BitSet());
+      // only the first-level dependencies which have not reached the component yet are carried on
+      final BitSet added = (BitSet) origin.origins.clone();
+      added.andNot(origins);
+      if(added.isEmpty()) {
+        continue;
+      }
+      if(origins.isEmpty()) {
+        introducers.put(id, names.get(added.nextSetBit(0)));
+      }
+      origins.or(added);
+      if(decided.add(id) && rules.decide(origin.component.getModuleVersion()) == DependencyRules.Decision.PRUNE) {
+        pruned.add(id);
+      }
+      if(pruned.contains(id)) {
+        continue;
+      }
+      for(final ResolvedComponentResult child : children(origin.component)) {
+        final BitSet reachedChild = reached.get(child.getId());
+        if(reachedChild == null || !contains(reachedChild, added)) {
+          queue.add(new Origin(child, added));
+        }
+      }
+    }
+
+    for(final String name : names) {
+      this.subtrees.put(name, new LinkedHashSet<>());
+    }
+    for(final Map.Entry<ComponentIdentifier, List<File>> entry : files.entrySet()) {
+      final String introducer = introducers.get(entry.getKey());
+      if(introducer == null) {
+        continue;
+      }
+      for(final File file : entry.getValue()) {
+        this.introducers.put(file, introducer);
+      }
+      final BitSet origins = reached.get(entry.getKey());
+      for(int i = origins.nextSetBit(0); i != -1; i = origins.nextSetBit(i + 1)) {
+        this.subtrees.get(names.get(i)).addAll(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Gets the first-level dependency which introduced {@code file}.
+   *
+   * @param file the file
+   * @return the display name of the first-level dependency, or {@code null} if {@code file} is not a selected library
+   */
+  public @Nullable String introducer(final File file) {
+    return this.introducers.get(file);
+  }
+
+  /**
+   * Gets the selected libraries reachable from each first-level dependency, in declaration order.
+   *
+   * @return the subtrees, keyed by the display name of the first-level dependency
+   */
+  public Map<String, Set<File>> subtrees() {
+    return Collections.unmodifiableMap(this.subtrees);
+  }
+
+  // if every bit of subset is set in set
+  private static boolean contains(final BitSet set, final BitSet subset) {
+    final BitSet missing = (BitSet) subset.clone();
+    missing.andNot(set);
+    return missing.isEmpty();
+  }
+
+  private static List<ResolvedComponentResult> children(final ResolvedComponentResult component) {
+    final List<ResolvedComponentResult> children = new ArrayList<>();
+    for(final DependencyResult dependency : component.getDependencies()) {
+      if(dependency instanceof ResolvedDependencyResult) {
+        children.add(((ResolvedDependencyResult) dependency).getSelected());
+      }
+    }
+    return children;
+  }
+
+  // a component, and the first-level dependencies reaching it through the path it was queued from
+  private static final class Origin {
+    final ResolvedComponentResult component;
+    final BitSet origins;
+
+    Origin(final ResolvedComponentResult component, final BitSet origins) {
+      this.component = component;
+      this.origins = origins;
+    }
+  }
+}
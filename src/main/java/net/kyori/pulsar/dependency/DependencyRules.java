@@ -0,0 +1,260 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.util.Identifier;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.specs.Spec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * An indexed set of include and exclude rules.
+ *
+ * <p>Rules are compiled once, when first matched against. Rules whose coordinates are literal are
+ * looked up by hash, and only rules containing regular expression syntax (or custom specs) are
+ * tested one by one. When several rules match, the rule declared first wins, whichever way it was
+ * matched.</p>
+ */
+final class DependencyRules {
+  /**
+   * Characters which make a coordinate a pattern rather than a literal.
+   *
+   * <p>A {@code .} is not included, as it is present in almost every group, and is instead only a
+   * pattern character where it could not be a separator: see {@link #literal(String)}.</p>
+   */
+  private static final String PATTERN_CHARACTERS = "\\^$|?*+()[]{}";
+  private final Map<Object, Rule> rules = new LinkedHashMap<>();
+  private @Nullable Index index;
+  private long matches;
+
+  Rule rule(final Spec<? super ModuleVersionIdentifier> spec) {
+    this.index = null;
+    if(spec instanceof PulsarDependenciesImpl.SpecImpl) {
+      final PulsarDependenciesImpl.SpecImpl dependency = (PulsarDependenciesImpl.SpecImpl) spec;
+      return this.rules.computeIfAbsent(dependency.key, ignored -> new Rule(this.rules.size(), dependency, spec));
+    }
+    return this.rules.computeIfAbsent(spec, ignored -> new Rule(this.rules.size(), null, spec));
+  }
+
+  /**
+   * Decides what to do with the dependency identified by {@code id}.
+   *
+   * @param id the dependency identifier
+   * @return the decision
+   */
+  Decision decide(final ModuleVersionIdentifier id) {
+    final Index index = this.index();
+    final Rule rule = index.match(id);
+    if(rule != null) {
+      this.matches++;
+      if(rule.include) {
+        return Decision.INCLUDE;
+      }
+      return rule.transitive ? Decision.PRUNE : Decision.EXCLUDE;
+    }
+    return index.limited ? Decision.EXCLUDE : Decision.INCLUDE;
+  }
+
+  /**
+   * Gets the number of decisions made by a rule, rather than by default.
+   *
+   * @return the number of matches
+   */
+  long matches() {
+    return this.matches;
+  }
+
+  private Index index() {
+    if(this.index == null) {
+      this.index = new Index(this.rules.values());
+    }
+    return this.index;
+  }
+
+  /**
+   * Tests if {@code string} matches only itself.
+   *
+   * <p>A {@code .} between two other characters, as in {@code com.example}, is treated as a literal
+   * separator, although it matches any character. Anywhere else, as in {@code com.example.} or
+   * {@code com..example}, it makes the string a pattern.</p>
+   *
+   * @param string the string
+   * @return {@code true} if {@code string} is literal
+   */
+  static boolean literal(final String string) {
+    for(int i = 0, length = string.length(); i < length; i++) {
+      final char c = string.charAt(i);
+      if(PATTERN_CHARACTERS.indexOf(c) != -1) {
+        return false;
+      }
+      if(c == '.' && (i == 0 || i == length - 1 || string.charAt(i - 1) == '.' || string.charAt(i + 1) == '.')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static final class Rule {
+    /**
+     * The position of the rule in declaration order.
+     */
+    final int order;
+    final @Nullable PulsarDependenciesImpl.SpecImpl dependency;
+    final Spec<? super ModuleVersionIdentifier> spec;
+    boolean include = true;
+    /**
+     * If the dependencies of an excluded dependency are also excluded, unless reachable through another dependency.
+     */
+    boolean transitive;
+
+    Rule(final int order, final @Nullable PulsarDependenciesImpl.SpecImpl dependency, final Spec<? super ModuleVersionIdentifier> spec) {
+      this.order = order;
+      this.dependency = dependency;
+      this.spec = spec;
+    }
+  }
+
+  enum Decision {
+    /**
+     * The dependency is included, and its dependencies are visited.
+     */
+    INCLUDE,
+    /**
+     * The dependency is excluded, but its dependencies are still visited.
+     */
+    EXCLUDE,
+    /**
+     * The dependency is excluded, and its dependencies are not visited through it.
+     */
+    PRUNE;
+  }
+
+  private static final class Index {
+    private final Map<Identifier, Rule> exact = new HashMap<>();
+    private final Map<String, Rule> versionless = new HashMap<>();
+    private final List<Matcher> patterns = new ArrayList<>();
+    private final boolean limited;
+
+    Index(final Iterable<Rule> rules) {
+      boolean limited = false;
+      for(final Rule rule : rules) {
+        limited |= rule.include;
+        if(rule.dependency == null) {
+          this.patterns.add(new Matcher.Custom(rule));
+          continue;
+        }
+        final Identifier id = rule.dependency.dependency();
+        if(literal(id.getGroup()) && literal(id.getName())) {
+          if(id.getVersion() == null) {
+            this.versionless.put(key(id.getGroup(), id.getName()), rule);
+          } else if(literal(id.getVersion())) {
+            this.exact.put(id, rule);
+          } else {
+            this.patterns.add(new Matcher.Compiled(rule, id));
+          }
+        } else {
+          this.patterns.add(new Matcher.Compiled(rule, id));
+        }
+      }
+      this.limited = limited;
+    }
+
+    // the first declared of the matching rules
+    @Nullable Rule match(final ModuleVersionIdentifier id) {
+      Rule match = null;
+      if(!this.exact.isEmpty()) {
+        match = this.exact.get(new Identifier(id));
+      }
+      if(!this.versionless.isEmpty()) {
+        final Rule rule = this.versionless.get(key(id.getGroup(), id.getName()));
+        if(rule != null && (match == null || rule.order < match.order)) {
+          match = rule;
+        }
+      }
+      // patterns are in declaration order, so only those declared before a literal match are tested
+      for(final Matcher matcher : this.patterns) {
+        if(match != null && matcher.rule.order > match.order) {
+          break;
+        }
+        if(matcher.matches(id)) {
+          return matcher.rule;
+        }
+      }
+      return match;
+    }
+
+    private static String key(final String group, final String name) {
+      return group + ':' + name;
+    }
+  }
+
+  private abstract static class Matcher {
+    final Rule rule;
+
+    Matcher(final Rule rule) {
+      this.rule = rule;
+    }
+
+    abstract boolean matches(final ModuleVersionIdentifier id);
+
+    static final class Compiled extends Matcher {
+      private final Pattern group;
+      private final Pattern name;
+      private final @Nullable Pattern version;
+
+      Compiled(final Rule rule, final Identifier id) {
+        super(rule);
+        this.group = Pattern.compile(id.getGroup());
+        this.name = Pattern.compile(id.getName());
+        this.version = id.getVersion() == null ? null : Pattern.compile(id.getVersion());
+      }
+
+      @Override
+      boolean matches(final ModuleVersionIdentifier id) {
+        return this.group.matcher(id.getGroup()).matches()
+          && this.name.matcher(id.getName()).matches()
+          && (this.version == null || this.version.matcher(id.getVersion()).matches());
+      }
+    }
+
+    static final class Custom extends Matcher {
+      Custom(final Rule rule) {
+        super(rule);
+      }
+
+      @Override
+      boolean matches(final ModuleVersionIdentifier id) {
+        return this.rule.spec.isSatisfiedBy(id);
+      }
+    }
+  }
+}
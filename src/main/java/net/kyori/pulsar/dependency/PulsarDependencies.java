@@ -25,21 +25,48 @@ package net.kyori.pulsar.dependency;
 
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
-import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.specs.Spec;
 
 import java.util.Collection;
 
+/**
+ * Rules selecting the dependencies of a distribution.
+ *
+ * <p>The group, name and version of a {@link #dependency(Object) dependency} spec are regular
+ * expressions. A {@code .} between two other characters, as in {@code com.example}, is the
+ * exception: it only matches a {@code .}, so that such specs can be looked up directly.</p>
+ *
+ * <p>When several rules match a dependency, the rule declared first decides whether it is
+ * included. If any rule includes dependencies, dependencies matching no rule are excluded.</p>
+ *
+ * <p>Specs are tested against the {@link ModuleVersionIdentifier} of each component in the resolved
+ * graph. Earlier versions tested a {@link org.gradle.api.artifacts.ResolvedDependency}, which only
+ * the eager {@link org.gradle.api.artifacts.ResolvedConfiguration} provides: custom specs reading
+ * {@code moduleGroup}, {@code moduleName} or {@code moduleVersion} must read {@code group},
+ * {@code name} or {@code version} instead.</p>
+ */
 public interface PulsarDependencies {
-  PulsarDependencies include(final Spec<? super ResolvedDependency> spec);
+  PulsarDependencies include(final Spec<? super ModuleVersionIdentifier> spec);
+
+  PulsarDependencies exclude(final Spec<? super ModuleVersionIdentifier> spec);
 
-  PulsarDependencies exclude(final Spec<? super ResolvedDependency> spec);
+  /**
+   * Excludes dependencies matching {@code spec}, along with their dependencies.
+   *
+   * <p>A dependency of an excluded dependency is still included if it is also reachable through a
+   * dependency which is not excluded.</p>
+   *
+   * @param spec the spec
+   * @return this
+   */
+  PulsarDependencies excludeTransitively(final Spec<? super ModuleVersionIdentifier> spec);
 
-  Spec<? super ResolvedDependency> dependency(final Object notation);
+  Spec<? super ModuleVersionIdentifier> dependency(final Object notation);
 
-  Spec<? super ResolvedDependency> dependency(final Dependency dependency);
+  Spec<? super ModuleVersionIdentifier> dependency(final Dependency dependency);
 
-  Spec<? super ResolvedDependency> project(final String notation);
+  Spec<? super ModuleVersionIdentifier> project(final String notation);
 
   Collection<PulsarDependency> resolve(final Collection<Configuration> configurations);
 }
@@ -23,107 +23,226 @@
  */
 package net.kyori.pulsar.dependency;
 
+import net.kyori.pulsar.report.PulsarMetrics;
 import net.kyori.pulsar.util.Identifier;
-import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
-import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
 import org.gradle.api.specs.Spec;
 
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 public class PulsarDependenciesImpl implements PulsarDependencies {
-  private final Map<Identifier, PulsarDependency> dependencies = new HashMap<>();
-  private final Project project;
-  private boolean limitedInclude;
+  private final DependencyRules rules = new DependencyRules();
+  private final DependencyHandler dependencies;
+  private final PulsarMetrics metrics;
+
+  public PulsarDependenciesImpl(final DependencyHandler dependencies) {
+    this(dependencies, new PulsarMetrics());
+  }
 
-  public PulsarDependenciesImpl(final Project project) {
-    this.project = project;
+  public PulsarDependenciesImpl(final DependencyHandler dependencies, final PulsarMetrics metrics) {
+    this.dependencies = dependencies;
+    this.metrics = metrics;
   }
 
   @Override
-  public PulsarDependencies include(final Spec<? super ResolvedDependency> spec) {
-    this.entry((SpecImpl) spec).include();
+  public PulsarDependencies include(final Spec<? super ModuleVersionIdentifier> spec) {
+    final DependencyRules.Rule rule = this.rules.rule(spec);
+    rule.include = true;
+    rule.transitive = false;
     return this;
   }
 
   @Override
-  public PulsarDependencies exclude(final Spec<? super ResolvedDependency> spec) {
-    this.entry((SpecImpl) spec).exclude();
+  public PulsarDependencies exclude(final Spec<? super ModuleVersionIdentifier> spec) {
+    final DependencyRules.Rule rule = this.rules.rule(spec);
+    rule.include = false;
+    rule.transitive = false;
     return this;
   }
 
-  private PulsarDependency entry(final SpecImpl spec) {
-    return this.dependencies.computeIfAbsent(spec.dependency, ignored -> new PulsarDependency.Resolved(spec));
+  @Override
+  public PulsarDependencies excludeTransitively(final Spec<? super ModuleVersionIdentifier> spec) {
+    final DependencyRules.Rule rule = this.rules.rule(spec);
+    rule.include = false;
+    rule.transitive = true;
+    return this;
   }
 
   @Override
-  public Spec<? super ResolvedDependency> dependency(final Object notation) {
-    return this.dependency(this.project.getDependencies().create(notation));
+  public Spec<? super ModuleVersionIdentifier> dependency(final Object notation) {
+    return this.dependency(this.dependencies.create(notation));
   }
 
   @Override
-  public Spec<? super ResolvedDependency> dependency(final Dependency dependency) {
-    return new SpecImpl(new Identifier(dependency));
+  public Spec<? super ModuleVersionIdentifier> dependency(final Dependency dependency) {
+    if(dependency instanceof ProjectDependency) {
+      return new SpecImpl("project " + ((ProjectDependency) dependency).getDependencyProject().getPath(), () -> new Identifier(dependency));
+    }
+    final Identifier identifier = new Identifier(dependency);
+    return new SpecImpl(identifier, () -> identifier);
   }
 
   @Override
-  public Spec<? super ResolvedDependency> project(final String notation) {
+  public Spec<? super ModuleVersionIdentifier> project(final String notation) {
     final Map<String, String> map = new HashMap<>(2);
     map.put("path", notation);
     map.put("configuration", "default");
-    return this.dependency(this.project.getDependencies().project(map));
+    final Dependency dependency = this.dependencies.project(map);
+    return new SpecImpl("project " + notation, () -> new Identifier(dependency));
   }
 
   @Override
   public Collection<PulsarDependency> resolve(final Collection<Configuration> configurations) {
-    this.resolveState();
-    return configurations.stream()
-      .flatMap(configuration -> this.resolve(configuration).stream())
-      .collect(Collectors.toSet());
+    final List<String> names = new ArrayList<>(configurations.size());
+    final List<ResolvedComponentResult> roots = new ArrayList<>(configurations.size());
+    final long[] nanos = new long[configurations.size()];
+    for(final Configuration configuration : configurations) {
+      final long start = System.nanoTime();
+      roots.add(configuration.getIncoming().getResolutionResult().getRoot());
+      nanos[names.size()] = System.nanoTime() - start;
+      names.add(configuration.getName());
+    }
+    final int[] nodes = new int[roots.size()];
+    final Collection<PulsarDependency> artifacts = this.resolve(roots, nodes);
+    for(int i = 0; i < names.size(); i++) {
+      this.metrics.resolved(names.get(i), nanos[i], nodes[i]);
+    }
+    return artifacts;
   }
 
-  private void resolveState() {
-    this.limitedInclude = this.dependencies.values().stream().anyMatch(dependency -> dependency.include.isPresent() && dependency.include.get());
+  /**
+   * Walks the graphs below {@code roots}, selecting the dependencies included by the rules.
+   *
+   * <p>The selection is not cached between builds. A key that detects a changed graph has to read
+   * every component and edge of it, which costs as much as this walk, as each component is only
+   * visited once.</p>
+   *
+   * <p>Graphs are walked breadth first, in declaration order: direct dependencies come before
+   * their own dependencies, and the selection keeps that order.</p>
+   *
+   * @param roots the roots of the resolved graphs
+   * @param nodes filled with the number of components first visited from each root
+   * @return the selected dependencies, in walk order
+   */
+  Collection<PulsarDependency> resolve(final List<ResolvedComponentResult> roots, final int[] nodes) {
+    // shared between roots: a component reachable from several roots, or from several parents
+    // below one, is only visited once
+    final Set<ComponentIdentifier> visited = new HashSet<>();
+    final Set<PulsarDependency> artifacts = new LinkedHashSet<>();
+    final long[] decisions = new long[DependencyRules.Decision.values().length];
+    final long matches = this.rules.matches();
+    for(int i = 0; i < roots.size(); i++) {
+      final int before = visited.size();
+      final ResolvedComponentResult root = roots.get(i);
+      visited.add(root.getId());
+      this.resolve(root, visited, artifacts, decisions);
+      nodes[i] = visited.size() - before;
+    }
+    this.metrics.decided(
+      decisions[DependencyRules.Decision.INCLUDE.ordinal()],
+      decisions[DependencyRules.Decision.EXCLUDE.ordinal()],
+      decisions[DependencyRules.Decision.PRUNE.ordinal()],
+      this.rules.matches() - matches
+    );
+    return artifacts;
   }
 
-  private Collection<PulsarDependency> resolve(final Configuration configuration) {
-    final Set<PulsarDependency> artifacts = new HashSet<>();
-    this.resolve(configuration.getResolvedConfiguration().getFirstLevelModuleDependencies(), artifacts);
-    return artifacts;
+  /**
+   * Attributes the selected libraries to the first-level dependencies which introduced them, walking
+   * the graphs below {@code roots} with the same rules as {@link #resolve(List, int[])}.
+   *
+   * @param roots the roots of the resolved graphs
+   * @param files the files of each selected dependency
+   * @return the attribution
+   */
+  Attribution attribution(final List<ResolvedComponentResult> roots, final Map<ComponentIdentifier, List<File>> files) {
+    return new Attribution(roots, files, this.rules);
   }
 
-  private void resolve(final Set<ResolvedDependency> dependencies, final Set<PulsarDependency> artifacts) {
-    for(final ResolvedDependency dependency : dependencies) {
-      if(!this.limitedInclude) {
-        this.dependencies.computeIfAbsent(new Identifier(dependency), dep -> new PulsarDependency.Included(dependency));
+  private void resolve(final ResolvedComponentResult root, final Set<ComponentIdentifier> visited, final Set<PulsarDependency> artifacts, final long[] decisions) {
+    final Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+    children(root, visited, queue);
+    while(!queue.isEmpty()) {
+      final ResolvedComponentResult component = queue.poll();
+      if(!visited.add(component.getId())) {
+        continue;
       }
 
-      this.dependencies.values().stream()
-        .filter(it -> it.satisfiedBy(dependency))
-        .limit(1)
-        .filter(PulsarDependency::included)
-        .forEach(artifacts::add);
+      final ModuleVersionIdentifier id = component.getModuleVersion();
+      final DependencyRules.Decision decision = this.rules.decide(id);
+      decisions[decision.ordinal()]++;
+      if(decision == DependencyRules.Decision.PRUNE) {
+        // the subtree is not walked from here, but remains reachable through any other path to it
+        continue;
+      }
+      if(decision == DependencyRules.Decision.INCLUDE) {
+        artifacts.add(new PulsarDependency(component.getId(), new Identifier(id)));
+      }
+
+      children(component, visited, queue);
+    }
+  }
 
-      this.resolve(dependency.getChildren(), artifacts);
+  private static void children(final ResolvedComponentResult component, final Set<ComponentIdentifier> visited, final Deque<ResolvedComponentResult> queue) {
+    for(final DependencyResult dependency : component.getDependencies()) {
+      if(dependency instanceof ResolvedDependencyResult) {
+        final ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+        if(!visited.contains(selected.getId())) {
+          queue.offer(selected);
+        }
+      }
     }
   }
 
-  private static class SpecImpl implements Spec<ResolvedDependency> {
-    private final Identifier dependency;
+  static class SpecImpl implements Spec<ModuleVersionIdentifier> {
+    final Object key;
+    private final Supplier<Identifier> supplier;
+    private @Nullable Identifier dependency;
 
-    private SpecImpl(final Identifier dependency) {
-      this.dependency = dependency;
+    private SpecImpl(final Object key, final Supplier<Identifier> supplier) {
+      this.key = key;
+      this.supplier = supplier;
+    }
+
+    /**
+     * Gets the identifier of the dependency.
+     *
+     * <p>The identifier of a project is only read once first needed, as the project may not have
+     * been evaluated, and so may not have its group or version set, when the spec is created.</p>
+     *
+     * @return the identifier
+     */
+    Identifier dependency() {
+      if(this.dependency == null) {
+        this.dependency = this.supplier.get();
+      }
+      return this.dependency;
     }
 
     @Override
-    public boolean isSatisfiedBy(final ResolvedDependency dependency) {
-      return this.dependency.isSatisfiedBy(dependency);
+    public boolean isSatisfiedBy(final ModuleVersionIdentifier id) {
+      return this.dependency().isSatisfiedBy(id);
     }
   }
 }
@@ -24,68 +24,76 @@
 package net.kyori.pulsar.dependency;
 
 import net.kyori.pulsar.util.Identifier;
-import org.gradle.api.artifacts.ResolvedArtifact;
-import org.gradle.api.artifacts.ResolvedDependency;
-import org.gradle.api.file.CopySpec;
-import org.gradle.api.specs.Spec;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
 
-import java.util.Optional;
+import java.io.File;
+import java.util.regex.Pattern;
 
-public abstract class PulsarDependency {
-  ResolvedDependency dependency;
-  Optional<Boolean> include = Optional.empty();
-  private Optional<Boolean> exclude = Optional.empty();
+public final class PulsarDependency {
+  // a snapshot version, or a snapshot resolved to, or declared as, its unique timestamped version
+  private static final Pattern SNAPSHOT = Pattern.compile(".*(-SNAPSHOT|-\\d{8}\\.\\d{6}-\\d+)");
+  private final ComponentIdentifier id;
+  private final Identifier identifier;
+  private final String path;
+  private final String directory;
+  private final String prefix;
 
-  void include() {
-    this.include = Optional.of(true);
-    this.exclude = Optional.of(false);
+  PulsarDependency(final ComponentIdentifier id, final Identifier identifier) {
+    this.id = id;
+    this.identifier = identifier;
+    this.path = identifier.path();
+    this.directory = this.path.substring(0, this.path.lastIndexOf('/') + 1);
+    this.prefix = identifier.getName() + '-' + identifier.getVersion();
   }
 
-  void exclude() {
-    this.include = Optional.of(false);
-    this.exclude = Optional.of(true);
+  public ComponentIdentifier getId() {
+    return this.id;
   }
 
-  public void into(final CopySpec libraries) {
-    for(final ResolvedArtifact artifact : this.dependency.getModuleArtifacts()) {
-      libraries.from(artifact.getFile(), spec -> spec.rename(new Identifier(artifact.getModuleVersion().getId()).renamingTransformer()));
-    }
+  public Identifier getIdentifier() {
+    return this.identifier;
   }
 
-  abstract boolean satisfiedBy(final ResolvedDependency dependency);
-
-  boolean included() {
-    final boolean include = !this.include.isPresent() || this.include.get();
-    final boolean exclude = this.exclude.isPresent() && this.exclude.get();
-    return include && !exclude;
+  /**
+   * Tests if the resolved version of this dependency is a snapshot.
+   *
+   * @return {@code true} if this dependency is a snapshot
+   */
+  public boolean isSnapshot() {
+    final String version = this.identifier.getVersion();
+    return version != null && SNAPSHOT.matcher(version).matches();
   }
 
-  static class Resolved extends PulsarDependency {
-    final Spec<? super ResolvedDependency> spec;
-
-    Resolved(final Spec<? super ResolvedDependency> spec) {
-      this.spec = spec;
-    }
-
-    @Override
-    boolean satisfiedBy(final ResolvedDependency dependency) {
-      final boolean satisfied = this.spec.isSatisfiedBy(dependency);
-      if(satisfied) {
-        this.dependency = dependency;
-      }
-      return satisfied;
+  /**
+   * Gets the path of an artifact of this dependency within the libraries directory.
+   *
+   * <p>An artifact named after this dependency keeps its name, and so its classifier and extension.
+   * Any other artifact is placed at the path of this dependency's jar.</p>
+   *
+   * @param artifact the artifact
+   * @return the path
+   */
+  public String path(final File artifact) {
+    final String name = artifact.getName();
+    if(name.startsWith(this.prefix + '-') || name.startsWith(this.prefix + '.')) {
+      return this.directory + name;
     }
+    return this.path;
   }
 
-  static class Included extends PulsarDependency {
-    Included(final ResolvedDependency dependency) {
-      this.dependency = dependency;
-      this.include();
+  @Override
+  public boolean equals(final Object other) {
+    if(this == other) {
+      return true;
     }
-
-    @Override
-    boolean satisfiedBy(final ResolvedDependency dependency) {
-      return this.dependency == dependency;
+    if(other == null || this.getClass() != other.getClass()) {
+      return false;
     }
+    return this.id.equals(((PulsarDependency) other).id);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.id.hashCode();
   }
 }
@@ -0,0 +1,248 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.report.PulsarMetrics;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.ArtifactCollection;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.file.FileCollection;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * The libraries selected for a distribution.
+ *
+ * <p>Selection is deferred until first requested, which only happens when a task consuming the
+ * libraries executes, and is then performed once.</p>
+ *
+ * <p>The files of every selected dependency are requested together through an artifact view, so
+ * that Gradle can download them in parallel, rather than one dependency at a time. Libraries
+ * {@link #share(PulsarLibraries) sharing} their artifacts request the files of every member's
+ * selection together.</p>
+ *
+ * <p>The libraries hold the configurations they select from, and resolve them when a consuming task
+ * executes, so the tasks consuming them are not compatible with the configuration cache.</p>
+ */
+public final class PulsarLibraries {
+  private final PulsarDependenciesImpl filter;
+  private final Supplier<Collection<Configuration>> configurations;
+  private final PulsarMetrics metrics;
+  // guards the selection separately, as the selection of every member of a group is read while fetching artifacts
+  private final Object selection = new Object();
+  private Group group = new Group(this);
+  private @Nullable Map<ComponentIdentifier, PulsarDependency> selected;
+  private @Nullable Map<File, String> paths;
+  private @Nullable Map<File, PulsarDependency> dependencies;
+
+  public PulsarLibraries(final PulsarDependenciesImpl filter, final Supplier<Collection<Configuration>> configurations, final PulsarMetrics metrics) {
+    this.filter = filter;
+    this.configurations = configurations;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Gets the selected dependencies.
+   *
+   * @return the selected dependencies
+   */
+  public Map<ComponentIdentifier, PulsarDependency> selected() {
+    synchronized(this.selection) {
+      if(this.selected == null) {
+        final Map<ComponentIdentifier, PulsarDependency> selected = new LinkedHashMap<>();
+        for(final PulsarDependency dependency : this.filter.resolve(this.configurations.get())) {
+          selected.put(dependency.getId(), dependency);
+        }
+        this.selected = Collections.unmodifiableMap(selected);
+      }
+      return this.selected;
+    }
+  }
+
+  /**
+   * Shares the artifacts of these libraries with {@code other}, so that the artifacts selected by
+   * either are fetched together, once.
+   *
+   * <p>Both must select from the same configurations, and neither may have had its artifacts requested.</p>
+   *
+   * @param other the other libraries
+   */
+  public synchronized void share(final PulsarLibraries other) {
+    if(this.group.artifacts != null || other.group.artifacts != null) {
+      throw new IllegalStateException("Artifacts have already been requested");
+    }
+    for(final PulsarLibraries member : other.group.members) {
+      member.group = this.group;
+      this.group.members.add(member);
+    }
+  }
+
+  /**
+   * Gets the artifacts of the selected dependencies, one collection per configuration.
+   *
+   * <p>Creating the collections does not resolve anything. When {@link #share(PulsarLibraries) shared},
+   * the collections also contain the artifacts selected by the other libraries.</p>
+   *
+   * @return the artifacts
+   */
+  public List<ArtifactCollection> artifacts() {
+    return this.group.artifacts(this.configurations.get());
+  }
+
+  /**
+   * Gets the files of the selected dependencies, one collection per configuration.
+   *
+   * @return the files
+   */
+  public List<FileCollection> files() {
+    final boolean shared = this.group.members.size() > 1;
+    final List<FileCollection> files = new ArrayList<>();
+    for(final ArtifactCollection artifacts : this.artifacts()) {
+      // the filter keeps the task dependencies of the collection, which a file collection of the selected files would lose
+      files.add(shared ? artifacts.getArtifactFiles().filter(file -> this.get().containsKey(file)) : artifacts.getArtifactFiles());
+    }
+    return files;
+  }
+
+  /**
+   * Gets the selected library files, mapped to their path within the libraries directory.
+   *
+   * @return the selected library files
+   */
+  public synchronized Map<File, String> get() {
+    if(this.paths == null) {
+      final Map<ComponentIdentifier, PulsarDependency> selected = this.selected();
+      final Map<File, String> paths = new LinkedHashMap<>(selected.size() * 2);
+      final Map<File, PulsarDependency> dependencies = new HashMap<>(selected.size() * 2);
+      final Map<String, File> files = new HashMap<>(selected.size() * 2);
+      long bytes = 0;
+      for(final ArtifactCollection artifacts : this.artifacts()) {
+        for(final ResolvedArtifactResult artifact : artifacts) {
+          final PulsarDependency dependency = selected.get(artifact.getId().getComponentIdentifier());
+          if(dependency != null && !paths.containsKey(artifact.getFile())) {
+            final String path = dependency.path(artifact.getFile());
+            final File existing = files.putIfAbsent(path, artifact.getFile());
+            if(existing != null) {
+              throw new GradleException("Both " + existing + " and " + artifact.getFile() + " would be installed as " + path);
+            }
+            paths.put(artifact.getFile(), path);
+            dependencies.put(artifact.getFile(), dependency);
+            bytes += artifact.getFile().length();
+          }
+        }
+      }
+      this.metrics.selected(paths.size(), bytes);
+      this.paths = Collections.unmodifiableMap(paths);
+      this.dependencies = dependencies;
+    }
+    return this.paths;
+  }
+
+  /**
+   * Gets the dependency {@code file} is an artifact of.
+   *
+   * @param file the file
+   * @return the dependency, or {@code null} if {@code file} is not a selected library
+   */
+  public synchronized @Nullable PulsarDependency dependency(final File file) {
+    this.get();
+    return this.dependencies.get(file);
+  }
+
+  /**
+   * Attributes the selected libraries to the first-level dependencies which introduced them.
+   *
+   * @return the attribution
+   */
+  public Attribution attribution() {
+    final Map<ComponentIdentifier, PulsarDependency> selected = this.selected();
+    final Map<ComponentIdentifier, List<File>> files = new LinkedHashMap<>();
+    for(final ArtifactCollection artifacts : this.artifacts()) {
+      for(final ResolvedArtifactResult artifact : artifacts) {
+        final ComponentIdentifier id = artifact.getId().getComponentIdentifier();
+        if(selected.containsKey(id)) {
+          files.computeIfAbsent(id, key -> new ArrayList<>()).add(artifact.getFile());
+        }
+      }
+    }
+    final List<ResolvedComponentResult> roots = new ArrayList<>();
+    for(final Configuration configuration : this.configurations.get()) {
+      roots.add(configuration.getIncoming().getResolutionResult().getRoot());
+    }
+    return this.filter.attribution(roots, files);
+  }
+
+  /**
+   * Gets the path of {@code file} within the libraries directory.
+   *
+   * @param file the file
+   * @return the path, or {@code null} if {@code file} is not a selected library
+   */
+  public @Nullable String path(final File file) {
+    return this.get().get(file);
+  }
+
+  // libraries whose artifacts are fetched together
+  private static final class Group {
+    final List<PulsarLibraries> members = new ArrayList<>();
+    private @Nullable List<ArtifactCollection> artifacts;
+
+    Group(final PulsarLibraries libraries) {
+      this.members.add(libraries);
+    }
+
+    synchronized List<ArtifactCollection> artifacts(final Collection<Configuration> configurations) {
+      if(this.artifacts == null) {
+        final List<ArtifactCollection> artifacts = new ArrayList<>();
+        for(final Configuration configuration : configurations) {
+          artifacts.add(configuration.getIncoming().artifactView(view -> view.componentFilter(this::selected)).getArtifacts());
+        }
+        this.artifacts = Collections.unmodifiableList(artifacts);
+      }
+      return this.artifacts;
+    }
+
+    private boolean selected(final ComponentIdentifier id) {
+      for(final PulsarLibraries member : this.members) {
+        if(member.selected().containsKey(id)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.image;
+
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Hashes;
+import net.kyori.pulsar.util.TarWriter;
+import org.gradle.api.GradleException;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Builds an OCI image of a distribution, as an image layout tarball.
+ *
+ * <p>The distribution is split into layers ordered from least to most frequently changing: third
+ * party libraries, snapshot libraries, the application jar and finally the files at the root of the
+ * distribution, such as the bootstrap configuration. Layers are written with fixed timestamps and
+ * owners, and in a fixed order, so an unchanged layer keeps its digest between builds and can be
+ * reused by registries and nodes.</p>
+ *
+ * <p>No daemon or registry is needed. An optional base image, such as one providing a Java runtime,
+ * can be given as a local OCI image layout directory.</p>
+ */
+@CacheableTask
+public class BuildOciImage extends AbstractDistributionTask {
+  private static final String LAYER_MEDIA_TYPE = "application/vnd.oci.image.layer.v1.tar+gzip";
+  private static final String CONFIG_MEDIA_TYPE = "application/vnd.oci.image.config.v1+json";
+  private static final String MANIFEST_MEDIA_TYPE = "application/vnd.oci.image.manifest.v1+json";
+  private static final String BLOBS = "blobs/sha256/";
+  private String applicationPath;
+  private Spec<? super File> snapshots = file -> false;
+  private String directory = "/app";
+  private List<String> entrypoint = new ArrayList<>();
+  private String architecture = "amd64";
+  private String os = "linux";
+  private String tag;
+  private @Nullable File baseImage;
+  private File destination;
+
+  /**
+   * Gets the path of the application jar relative to the distribution root.
+   *
+   * @return the path
+   */
+  @Input
+  public String getApplicationPath() {
+    return this.applicationPath;
+  }
+
+  public void setApplicationPath(final String applicationPath) {
+    this.applicationPath = applicationPath;
+  }
+
+  @Internal
+  public Spec<? super File> getSnapshotSpec() {
+    return this.snapshots;
+  }
+
+  /**
+   * Sets the spec selecting the classpath entries which are snapshot libraries, placed in their own layer.
+   *
+   * @param snapshots the spec
+   */
+  public void setSnapshotSpec(final Spec<? super File> snapshots) {
+    this.snapshots = snapshots;
+  }
+
+  @Input
+  public List<String> getSnapshotPaths() {
+    final List<String> paths = new ArrayList<>();
+    for(final File file : this.getClasspath()) {
+      if(this.snapshots.isSatisfiedBy(file)) {
+        paths.add(this.path(file));
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * Gets the directory the distribution is placed in within the image.
+   *
+   * @return the directory
+   */
+  @Input
+  public String getDirectory() {
+    return this.directory;
+  }
+
+  public void setDirectory(final String directory) {
+    this.directory = directory;
+  }
+
+  @Input
+  public List<String> getEntrypoint() {
+    return this.entrypoint;
+  }
+
+  public void setEntrypoint(final List<String> entrypoint) {
+    this.entrypoint = entrypoint;
+  }
+
+  @Input
+  public String getArchitecture() {
+    return this.architecture;
+  }
+
+  public void setArchitecture(final String architecture) {
+    this.architecture = architecture;
+  }
+
+  @Input
+  public String getOs() {
+    return this.os;
+  }
+
+  public void setOs(final String os) {
+    this.os = os;
+  }
+
+  @Input
+  public String getTag() {
+    return this.tag;
+  }
+
+  public void setTag(final String tag) {
+    this.tag = tag;
+  }
+
+  /**
+   * Gets the base image, as an OCI image layout directory.
+   *
+   * @return the base image, or {@code null} if the image has no base
+   */
+  @InputDirectory
+  @PathSensitive(PathSensitivity.RELATIVE)
+  @Optional
+  public @Nullable File getBaseImage() {
+    return this.baseImage;
+  }
+
+  public void setBaseImage(final @Nullable File baseImage) {
+    this.baseImage = baseImage;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  @SuppressWarnings("unchecked")
+  public void build() throws IOException {
+    final Map<String, File> libraries = new TreeMap<>();
+    final Map<String, File> snapshots = new TreeMap<>();
+    final Map<String, File> application = new TreeMap<>();
+    final Map<String, File> resources = new TreeMap<>();
+    for(final File file : this.getClasspath()) {
+      final String path = this.path(file);
+      if(path.equals(this.applicationPath)) {
+        application.put(path, file);
+      } else if(this.snapshots.isSatisfiedBy(file)) {
+        snapshots.put(path, file);
+      } else {
+        libraries.put(path, file);
+      }
+    }
+    for(final File file : this.getResources()) {
+      resources.put(file.getName(), file);
+    }
+
+    // blobs by digest
+    final Map<String, File> blobs = new TreeMap<>();
+    final List<Object> layers = new ArrayList<>();
+    final List<Object> diffIds = new ArrayList<>();
+    Map<String, Object> config = new LinkedHashMap<>();
+
+    if(this.baseImage != null) {
+      final Map<String, Object> manifest = (Map<String, Object>) this.json(this.blob(this.manifestDigest()));
+      final String configDigest = (String) ((Map<String, Object>) manifest.get("config")).get("digest");
+      config = (Map<String, Object>) this.json(this.blob(configDigest));
+      diffIds.addAll((List<Object>) ((Map<String, Object>) config.get("rootfs")).get("diff_ids"));
+      for(final Object layer : (List<Object>) manifest.get("layers")) {
+        final String digest = (String) ((Map<String, Object>) layer).get("digest");
+        blobs.put(digest, this.blob(digest));
+        layers.add(layer);
+      }
+    } else {
+      config.put("architecture", this.architecture);
+      config.put("os", this.os);
+    }
+
+    final String root = trim(this.directory);
+    int index = 0;
+    for(final Map<String, File> contents : Arrays.asList(libraries, snapshots, application, resources)) {
+      if(contents.isEmpty()) {
+        continue;
+      }
+      final Layer layer = this.layer(root, contents, new File(this.getTemporaryDir(), "layer-" + index++ + ".tar.gz"));
+      blobs.put(layer.digest, layer.file);
+      diffIds.add(layer.diffId);
+      final Map<String, Object> descriptor = new LinkedHashMap<>();
+      descriptor.put("mediaType", LAYER_MEDIA_TYPE);
+      descriptor.put("digest", layer.digest);
+      descriptor.put("size", layer.file.length());
+      layers.add(descriptor);
+    }
+
+    // drop fields which would make the image differ between builds, or describe the base image only
+    config.remove("created");
+    config.remove("history");
+    final Map<String, Object> rootfs = new LinkedHashMap<>();
+    rootfs.put("type", "layers");
+    rootfs.put("diff_ids", diffIds);
+    config.put("rootfs", rootfs);
+    Map<String, Object> runtime = (Map<String, Object>) config.get("config");
+    if(runtime == null) {
+      runtime = new LinkedHashMap<>();
+      config.put("config", runtime);
+    }
+    runtime.put("WorkingDir", this.directory);
+    if(!this.entrypoint.isEmpty()) {
+      runtime.put("Entrypoint", this.entrypoint);
+      runtime.remove("Cmd");
+    }
+
+    final byte[] configBytes = JsonOutput.toJson(config).getBytes(StandardCharsets.UTF_8);
+    final String configDigest = digest(configBytes);
+
+    final Map<String, Object> manifest = new LinkedHashMap<>();
+    manifest.put("schemaVersion", 2);
+    manifest.put("mediaType", MANIFEST_MEDIA_TYPE);
+    manifest.put("config", descriptor(CONFIG_MEDIA_TYPE, configDigest, configBytes.length));
+    manifest.put("layers", layers);
+    final byte[] manifestBytes = JsonOutput.toJson(manifest).getBytes(StandardCharsets.UTF_8);
+    final String manifestDigest = digest(manifestBytes);
+
+    final Map<String, Object> image = descriptor(MANIFEST_MEDIA_TYPE, manifestDigest, manifestBytes.length);
+    image.put("annotations", Collections.singletonMap("org.opencontainers.image.ref.name", this.tag));
+    final Map<String, Object> imageIndex = new LinkedHashMap<>();
+    imageIndex.put("schemaVersion", 2);
+    imageIndex.put("manifests", Collections.singletonList(image));
+
+    final Map<String, byte[]> generated = new TreeMap<>();
+    generated.put(configDigest, configBytes);
+    generated.put(manifestDigest, manifestBytes);
+
+    try(final TarWriter tar = new TarWriter(new BufferedOutputStream(Files.newOutputStream(this.destination.toPath())))) {
+      tar.file("oci-layout", "{\"imageLayoutVersion\":\"1.0.0\"}".getBytes(StandardCharsets.UTF_8));
+      tar.file("index.json", JsonOutput.toJson(imageIndex).getBytes(StandardCharsets.UTF_8));
+      tar.directory("blobs");
+      tar.directory("blobs/sha256");
+      final TreeSet<String> digests = new TreeSet<>(blobs.keySet());
+      digests.addAll(generated.keySet());
+      for(final String digest : digests) {
+        final String name = BLOBS + hex(digest);
+        final byte[] bytes = generated.get(digest);
+        if(bytes != null) {
+          tar.file(name, bytes);
+        } else {
+          tar.file(name, blobs.get(digest));
+        }
+      }
+    }
+  }
+
+  private Layer layer(final String root, final Map<String, File> contents, final File file) throws IOException {
+    final MessageDigest compressed = Hashes.digest();
+    final MessageDigest uncompressed = Hashes.digest();
+    try(final OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())), compressed);
+        final GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        final TarWriter tar = new TarWriter(new DigestOutputStream(gzip, uncompressed))) {
+      final TreeSet<String> directories = new TreeSet<>();
+      for(final String path : contents.keySet()) {
+        final String name = root.isEmpty() ? path : root + '/' + path;
+        for(int i = name.indexOf('/'); i != -1; i = name.indexOf('/', i + 1)) {
+          directories.add(name.substring(0, i));
+        }
+      }
+      for(final String directory : directories) {
+        tar.directory(directory);
+      }
+      for(final Map.Entry<String, File> entry : contents.entrySet()) {
+        tar.file(root.isEmpty() ? entry.getKey() : root + '/' + entry.getKey(), entry.getValue());
+      }
+    }
+    return new Layer(file, "sha256:" + Hashes.hex(compressed.digest()), "sha256:" + Hashes.hex(uncompressed.digest()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private String manifestDigest() throws IOException {
+    final Map<String, Object> index = (Map<String, Object>) this.json(new File(this.baseImage, "index.json"));
+    final List<Object> manifests = (List<Object>) index.get("manifests");
+    if(manifests == null || manifests.isEmpty()) {
+      throw new GradleException("Base image " + this.baseImage + " has no manifest");
+    }
+    return (String) ((Map<String, Object>) manifests.get(0)).get("digest");
+  }
+
+  private File blob(final String digest) {
+    final File blob = new File(this.baseImage, BLOBS + hex(digest));
+    if(!blob.isFile()) {
+      throw new GradleException("Base image " + this.baseImage + " is missing blob " + digest);
+    }
+    return blob;
+  }
+
+  private Object json(final File file) throws IOException {
+    return new JsonSlurper().parse(file, StandardCharsets.UTF_8.name());
+  }
+
+  private static Map<String, Object> descriptor(final String mediaType, final String digest, final long size) {
+    final Map<String, Object> descriptor = new LinkedHashMap<>();
+    descriptor.put("mediaType", mediaType);
+    descriptor.put("digest", digest);
+    descriptor.put("size", size);
+    return descriptor;
+  }
+
+  private static String digest(final byte[] bytes) {
+    return "sha256:" + Hashes.sha256(bytes);
+  }
+
+  private static String hex(final String digest) {
+    return digest.substring(digest.indexOf(':') + 1);
+  }
+
+  private static String trim(final String directory) {
+    int start = 0;
+    int end = directory.length();
+    while(start < end && directory.charAt(start) == '/') {
+      start++;
+    }
+    while(end > start && directory.charAt(end - 1) == '/') {
+      end--;
+    }
+    return directory.substring(start, end);
+  }
+
+  private static final class Layer {
+    final File file;
+    final String digest;
+    final String diffId;
+
+    Layer(final File file, final String digest, final String diffId) {
+      this.file = file;
+      this.digest = digest;
+      this.diffId = diffId;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Directories;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Installs an exploded distribution for development, linking to libraries and resources where they
+ * were built or downloaded rather than copying them.
+ *
+ * <p>Only links whose target changed are replaced, so relaunching after a change to the project
+ * only costs rebuilding the project jar. Where symbolic links are not supported, files are copied,
+ * and only copied again once their size or modification time changes.</p>
+ */
+public class DevInstall extends AbstractDistributionTask {
+  private File destination;
+
+  public DevInstall() {
+    // links only record where their targets are, so the targets' contents are not inputs
+    this.getOutputs().upToDateWhen(task -> false);
+  }
+
+  @Internal
+  @Override
+  public ConfigurableFileCollection getClasspath() {
+    return super.getClasspath();
+  }
+
+  @Internal
+  @Override
+  public ConfigurableFileCollection getResources() {
+    return super.getResources();
+  }
+
+  @OutputDirectory
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  public void install() {
+    final Path root = this.destination.toPath().toAbsolutePath().normalize();
+    final Map<Path, Path> links = new LinkedHashMap<>();
+    for(final File file : this.getClasspath()) {
+      links.put(root.resolve(this.path(file)).normalize(), file.toPath().toAbsolutePath());
+    }
+    for(final File file : this.getResources()) {
+      links.put(root.resolve(file.getName()), file.toPath().toAbsolutePath());
+    }
+
+    int updated = 0;
+    try {
+      for(final Map.Entry<Path, Path> entry : links.entrySet()) {
+        if(this.link(entry.getKey(), entry.getValue())) {
+          updated++;
+        }
+      }
+      final Set<Path> keep = new HashSet<>(links.keySet());
+      Directories.retain(root, keep, path -> {});
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while installing distribution", e);
+    }
+    this.getLogger().info("Updated {} of {} links in {}", updated, links.size(), this.destination);
+  }
+
+  // returns true if the link was created or replaced
+  private boolean link(final Path link, final Path target) throws IOException {
+    if(Files.isSymbolicLink(link)) {
+      if(Files.readSymbolicLink(link).equals(target)) {
+        return false;
+      }
+    } else if(Files.isRegularFile(link) && Files.size(link) == Files.size(target) && Files.getLastModifiedTime(link).equals(Files.getLastModifiedTime(target))) {
+      // a copy made where links are not supported, which keeps its target's modification time
+      return false;
+    }
+    Files.createDirectories(link.getParent());
+    final Path temporary = link.resolveSibling(link.getFileName() + ".tmp");
+    Files.deleteIfExists(temporary);
+    try {
+      Files.createSymbolicLink(temporary, target);
+    } catch(final IOException | UnsupportedOperationException e) {
+      this.getLogger().debug("Could not link {}, copying instead", link, e);
+      Files.copy(target, temporary, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+    Files.move(temporary, link, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return true;
+  }
+}
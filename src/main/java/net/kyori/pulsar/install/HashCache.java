@@ -0,0 +1,128 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Hashes of files, which remain valid while a file's size and modification time are unchanged.
+ *
+ * <p>Each line of the cache file is a file's size, modification time, SHA-256 hash and absolute path,
+ * separated by tabs.</p>
+ */
+final class HashCache {
+  private final File file;
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  HashCache(final File file) {
+    this.file = file;
+  }
+
+  void load() {
+    this.entries.clear();
+    if(!this.file.isFile()) {
+      return;
+    }
+    try(final BufferedReader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while((line = reader.readLine()) != null) {
+        final String[] parts = line.split("\t", 4);
+        if(parts.length == 4) {
+          this.entries.put(parts[3], new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+        }
+      }
+    } catch(final IOException | NumberFormatException e) {
+      // an unreadable cache only costs rehashing
+      this.entries.clear();
+    }
+  }
+
+  void save() throws IOException {
+    try(final BufferedWriter writer = Files.newBufferedWriter(this.file.toPath(), StandardCharsets.UTF_8)) {
+      for(final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+        final Entry value = entry.getValue();
+        writer.write(value.size + "\t" + value.modified + '\t' + value.hash + '\t' + entry.getKey() + '\n');
+      }
+    }
+  }
+
+  /**
+   * Gets the cached hash of {@code file}.
+   *
+   * @param file the file
+   * @return the hash, or {@code null} if it is not cached or the file has changed
+   */
+  @Nullable String get(final File file) {
+    final Entry entry = this.entries.get(file.getAbsolutePath());
+    if(entry == null || entry.size != file.length() || entry.modified != file.lastModified()) {
+      return null;
+    }
+    return entry.hash;
+  }
+
+  void put(final File file, final long size, final long modified, final String hash) {
+    this.entries.put(file.getAbsolutePath(), new Entry(size, modified, hash));
+  }
+
+  void remove(final File file) {
+    this.entries.remove(file.getAbsolutePath());
+  }
+
+  /**
+   * Removes the hashes of every file but {@code files}.
+   *
+   * @param files the files to keep the hashes of
+   */
+  void retain(final Collection<File> files) {
+    final Set<String> paths = new HashSet<>(files.size() * 2);
+    for(final File file : files) {
+      paths.add(file.getAbsolutePath());
+    }
+    this.entries.keySet().retainAll(paths);
+  }
+
+  private static final class Entry {
+    final long size;
+    final long modified;
+    final String hash;
+
+    Entry(final long size, final long modified, final String hash) {
+      this.size = size;
+      this.modified = modified;
+      this.hash = hash;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Hashes;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Installs a distribution whose libraries are linked from a shared, content-addressed store.
+ *
+ * <p>Each library is placed in the store once, as {@code <store>/<first two characters of hash>/<sha256>.<extension>},
+ * and linked into the distribution at its usual path. Distributions installed against the same
+ * store share identical libraries on disk, and so in the page cache.</p>
+ *
+ * <p>A hard link shares its contents with the store and every distribution linking it, so libraries
+ * in an installed distribution must not be modified in place. They are not made read-only, which
+ * would keep them from being removed on Windows. The store is never pruned by this task.</p>
+ *
+ * <p>Hashes of libraries are kept in a {@link #getHashCache() cache}, so that an unchanged library is
+ * not hashed again on the next install.</p>
+ */
+public class InstallShared extends AbstractDistributionTask {
+  private File store;
+  private File destination;
+  private File hashCache;
+  private LinkMode mode = LinkMode.HARDLINK;
+
+  /**
+   * Gets the store directory.
+   *
+   * <p>The store is shared with other distributions, and so is not tracked as an output. The plugin
+   * places it at {@code pulsar/store} in the Gradle user home, so that every project shares it.</p>
+   *
+   * @return the store directory
+   */
+  @Internal
+  public File getStore() {
+    return this.store;
+  }
+
+  public void setStore(final File store) {
+    this.store = store;
+  }
+
+  @Input
+  public String getStorePath() {
+    return this.store.getAbsolutePath();
+  }
+
+  @OutputDirectory
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @LocalState
+  public File getHashCache() {
+    return this.hashCache;
+  }
+
+  public void setHashCache(final File hashCache) {
+    this.hashCache = hashCache;
+  }
+
+  @Input
+  public LinkMode getMode() {
+    return this.mode;
+  }
+
+  public void setMode(final LinkMode mode) {
+    this.mode = mode;
+  }
+
+  @TaskAction
+  public void install() {
+    try {
+      final Path destination = this.destination.toPath();
+      clean(destination);
+      Files.createDirectories(destination);
+      final HashCache previous = new HashCache(this.hashCache);
+      previous.load();
+      // only the current libraries are kept, so the cache does not grow with every dependency update
+      final HashCache cache = new HashCache(this.hashCache);
+      int linked = 0;
+      for(final File file : this.getClasspath()) {
+        final Path target = destination.resolve(this.path(file));
+        Files.createDirectories(target.getParent());
+        this.link(this.store(file, hash(file, previous, cache)), target);
+        linked++;
+      }
+      cache.save();
+      for(final File file : this.getResources()) {
+        Files.copy(file.toPath(), destination.resolve(file.getName()), StandardCopyOption.REPLACE_EXISTING);
+      }
+      this.getLogger().info("Linked {} libraries from {}", linked, this.store);
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while installing distribution", e);
+    }
+  }
+
+  private static String hash(final File file, final HashCache previous, final HashCache cache) throws IOException {
+    final long size = file.length();
+    final long modified = file.lastModified();
+    String hash = previous.get(file);
+    if(hash == null) {
+      hash = Hashes.sha256(file);
+    }
+    cache.put(file, size, modified, hash);
+    return hash;
+  }
+
+  // places file in the store if it is not already present, returning its path in the store
+  private Path store(final File file, final String hash) throws IOException {
+    final String name = file.getName();
+    final int dot = name.lastIndexOf('.');
+    final Path path = this.store.toPath().resolve(hash.substring(0, 2)).resolve(dot == -1 ? hash : hash + name.substring(dot));
+    if(!Files.exists(path)) {
+      Files.createDirectories(path.getParent());
+      final Path temporary = Files.createTempFile(path.getParent(), hash, ".tmp");
+      Files.copy(file.toPath(), temporary, StandardCopyOption.REPLACE_EXISTING);
+      try {
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+      } catch(final FileAlreadyExistsException e) {
+        // stored concurrently by another build
+        Files.delete(temporary);
+      }
+    }
+    return path;
+  }
+
+  private void link(final Path source, final Path target) throws IOException {
+    if(this.mode == LinkMode.SYMLINK) {
+      Files.createSymbolicLink(target, source.toAbsolutePath());
+      return;
+    }
+    try {
+      Files.createLink(target, source);
+    } catch(final IOException | UnsupportedOperationException e) {
+      this.getLogger().info("Could not link {}, copying instead: {}", target, e.getMessage());
+      Files.copy(source, target);
+    }
+  }
+
+  private static void clean(final Path directory) throws IOException {
+    if(!Files.exists(directory)) {
+      return;
+    }
+    // only the links are removed, the store is left untouched
+    try(final Stream<Path> paths = Files.walk(directory)) {
+      final List<Path> list = new ArrayList<>();
+      paths.sorted(Comparator.reverseOrder()).forEach(list::add);
+      for(final Path path : list) {
+        if(!path.equals(directory)) {
+          // stores written by earlier versions hold read-only libraries, which Windows refuses to delete
+          if(!Files.isWritable(path)) {
+            path.toFile().setWritable(true);
+          }
+          Files.delete(path);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.util.Directories;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.IsolationMode;
+import org.gradle.workers.WorkerExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+/**
+ * Synchronizes a distribution directory with the libraries and resources of a distribution.
+ *
+ * <p>Files are hashed and copied in parallel by workers. Hashes are cached by path, size and
+ * modification time, so a file which is unchanged on both sides is skipped without being read, and a
+ * file whose destination already has the same contents is not copied. Files in the destination which
+ * are not part of the distribution are removed.</p>
+ */
+public class SyncDistribution extends AbstractDistributionTask {
+  private final WorkerExecutor workers;
+  private File destination;
+  private File hashCache;
+
+  @Inject
+  public SyncDistribution(final WorkerExecutor workers) {
+    this.workers = workers;
+  }
+
+  @OutputDirectory
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @LocalState
+  public File getHashCache() {
+    return this.hashCache;
+  }
+
+  public void setHashCache(final File hashCache) {
+    this.hashCache = hashCache;
+  }
+
+  @TaskAction
+  public void sync() {
+    final Map<File, File> files = new LinkedHashMap<>();
+    for(final File file : this.getClasspath()) {
+      files.put(new File(this.destination, this.path(file)), file);
+    }
+    for(final File file : this.getResources()) {
+      files.put(new File(this.destination, file.getName()), file);
+    }
+
+    final HashCache cache = new HashCache(this.hashCache);
+    cache.load();
+    final File results = new File(this.getTemporaryDir(), "results");
+    try {
+      Directories.clear(results.toPath());
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while clearing " + results, e);
+    }
+    results.mkdirs();
+
+    final Map<File, File> submitted = new LinkedHashMap<>();
+    for(final Map.Entry<File, File> entry : files.entrySet()) {
+      final File destination = entry.getKey();
+      final File source = entry.getValue();
+      final String hash = cache.get(source);
+      if(hash != null && destination.isFile() && hash.equals(cache.get(destination))) {
+        continue;
+      }
+      final File result = new File(results, String.valueOf(submitted.size()));
+      submitted.put(destination, source);
+      this.workers.submit(SyncFile.class, config -> {
+        config.setIsolationMode(IsolationMode.NONE);
+        config.setDisplayName("Sync " + source.getName());
+        config.params(source, destination, result);
+      });
+    }
+    this.workers.await();
+
+    try {
+      int index = 0;
+      for(final Map.Entry<File, File> entry : submitted.entrySet()) {
+        final String[] parts = new String(Files.readAllBytes(new File(results, String.valueOf(index++)).toPath()), StandardCharsets.UTF_8).trim().split("\t");
+        cache.put(entry.getValue(), Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+        cache.put(entry.getKey(), Long.parseLong(parts[3]), Long.parseLong(parts[4]), parts[2]);
+      }
+      final Set<Path> keep = files.keySet().stream().map(file -> file.toPath().toAbsolutePath().normalize()).collect(Collectors.toCollection(HashSet::new));
+      Directories.retain(this.destination.toPath().toAbsolutePath().normalize(), keep, path -> cache.remove(path.toFile()));
+      // sources no longer part of the distribution would otherwise stay in the cache forever
+      final Set<File> current = new HashSet<>(files.keySet());
+      current.addAll(files.values());
+      cache.retain(current);
+      cache.save();
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while syncing distribution", e);
+    }
+    this.getLogger().info("Synced {} of {} files to {}", submitted.size(), files.size(), this.destination);
+  }
+}
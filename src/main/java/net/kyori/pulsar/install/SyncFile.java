@@ -0,0 +1,75 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import net.kyori.pulsar.util.Hashes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import javax.inject.Inject;
+
+/**
+ * Hashes a file and copies it to its destination, unless the destination already has the same contents.
+ *
+ * <p>Workers cannot return values, so the outcome is written to {@code result} as the source's size,
+ * modification time and hash, followed by the destination's.</p>
+ */
+public class SyncFile implements Runnable {
+  private final File source;
+  private final File destination;
+  private final File result;
+
+  @Inject
+  public SyncFile(final File source, final File destination, final File result) {
+    this.source = source;
+    this.destination = destination;
+    this.result = result;
+  }
+
+  @Override
+  public void run() {
+    try {
+      final long size = this.source.length();
+      final long modified = this.source.lastModified();
+      final String hash = Hashes.sha256(this.source);
+      if(!this.destination.isFile() || !Hashes.sha256(this.destination).equals(hash)) {
+        final Path target = this.destination.toPath();
+        Files.createDirectories(target.getParent());
+        final Path temporary = Files.createTempFile(target.getParent(), this.destination.getName(), ".tmp");
+        Files.copy(this.source.toPath(), temporary, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      final String line = size + "\t" + modified + '\t' + hash + '\t' + this.destination.length() + '\t' + this.destination.lastModified() + '\n';
+      Files.write(this.result.toPath(), line.getBytes(StandardCharsets.UTF_8));
+    } catch(final IOException e) {
+      throw new UncheckedIOException("Could not sync " + this.source + " to " + this.destination, e);
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.merge;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DuplicatesStrategy;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Merges jars into a single jar.
+ *
+ * <p>Jars are merged in classpath order. Service files under {@code META-INF/services} are
+ * concatenated, and signatures are stripped. The main attributes of the first jar's manifest are
+ * only kept when {@link #isKeepManifest() requested}, as when it is the project's own jar: a
+ * library's {@code Main-Class} or {@code Class-Path} does not describe the merged jar. If any jar is
+ * a multi-release jar, so is the merged jar, and versioned entries are merged like any other entry. Module descriptors are dropped, as the merged jar is meant for
+ * the classpath.</p>
+ *
+ * <p>Other entries present in more than one jar are resolved according to the
+ * {@link #getDuplicatesStrategy() duplicates strategy}: {@link DuplicatesStrategy#EXCLUDE} and
+ * {@link DuplicatesStrategy#WARN} keep the first, {@link DuplicatesStrategy#INCLUDE} keeps the last,
+ * and {@link DuplicatesStrategy#FAIL} fails the build.</p>
+ */
+@CacheableTask
+public class MergeJars extends DefaultTask {
+  private static final String SERVICES = "META-INF/services/";
+  private static final String MULTI_RELEASE = "Multi-Release";
+  // a fixed timestamp (1980-02-01), for reproducible output
+  private static final long TIME = 318211200000L;
+  private final ConfigurableFileCollection jars = this.getProject().files();
+  private DuplicatesStrategy duplicatesStrategy = DuplicatesStrategy.EXCLUDE;
+  private boolean keepManifest;
+  private File destination;
+
+  @Classpath
+  public ConfigurableFileCollection getJars() {
+    return this.jars;
+  }
+
+  @Input
+  public DuplicatesStrategy getDuplicatesStrategy() {
+    return this.duplicatesStrategy;
+  }
+
+  public void setDuplicatesStrategy(final DuplicatesStrategy duplicatesStrategy) {
+    this.duplicatesStrategy = duplicatesStrategy;
+  }
+
+  /**
+   * Gets if the main attributes of the first jar's manifest are kept.
+   *
+   * @return {@code true} if the manifest of the first jar is kept
+   */
+  @Input
+  public boolean isKeepManifest() {
+    return this.keepManifest;
+  }
+
+  public void setKeepManifest(final boolean keepManifest) {
+    this.keepManifest = keepManifest;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  @TaskAction
+  public void merge() throws IOException {
+    final List<File> jars = new ArrayList<>();
+    boolean keepManifest = this.keepManifest;
+    for(final File jar : this.jars) {
+      if(jar.isFile()) {
+        jars.add(jar);
+      } else if(jars.isEmpty()) {
+        // the manifest of the jar following a missing first jar is not kept in its place
+        keepManifest = false;
+      }
+    }
+
+    // first pass: decide which jar provides each entry
+    final Map<String, Integer> sources = new LinkedHashMap<>();
+    final Map<String, Set<String>> services = new LinkedHashMap<>();
+    Manifest manifest = null;
+    boolean multiRelease = false;
+    for(int i = 0; i < jars.size(); i++) {
+      try(final ZipFile zip = new ZipFile(jars.get(i))) {
+        final Enumeration<? extends ZipEntry> entries = zip.entries();
+        while(entries.hasMoreElements()) {
+          final ZipEntry entry = entries.nextElement();
+          final String name = entry.getName();
+          if(entry.isDirectory() || skip(name)) {
+            continue;
+          }
+          if(name.equalsIgnoreCase(JarFile.MANIFEST_NAME)) {
+            try(final InputStream is = zip.getInputStream(entry)) {
+              final Manifest read = new Manifest(is);
+              multiRelease |= Boolean.parseBoolean(read.getMainAttributes().getValue(MULTI_RELEASE));
+              if(i == 0 && keepManifest) {
+                manifest = read;
+              }
+            }
+            continue;
+          }
+          if(name.startsWith(SERVICES) && name.indexOf('/', SERVICES.length()) == -1) {
+            services(zip, entry, services.computeIfAbsent(name, key -> new LinkedHashSet<>()));
+            continue;
+          }
+          final Integer previous = sources.get(name);
+          if(previous == null) {
+            sources.put(name, i);
+          } else {
+            this.duplicate(name, jars.get(previous), jars.get(i));
+            if(this.duplicatesStrategy == DuplicatesStrategy.INCLUDE) {
+              sources.put(name, i);
+            }
+          }
+        }
+      }
+    }
+
+    // second pass: write entries in classpath order
+    try(final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(this.destination.toPath())))) {
+      final Manifest merged = new Manifest();
+      if(manifest != null) {
+        merged.getMainAttributes().putAll(manifest.getMainAttributes());
+      }
+      merged.getMainAttributes().putIfAbsent(Attributes.Name.MANIFEST_VERSION, "1.0");
+      if(multiRelease) {
+        merged.getMainAttributes().putValue(MULTI_RELEASE, "true");
+      }
+      entry(out, JarFile.MANIFEST_NAME);
+      merged.write(out);
+
+      for(final Map.Entry<String, Set<String>> service : services.entrySet()) {
+        entry(out, service.getKey());
+        for(final String line : service.getValue()) {
+          out.write(line.getBytes(StandardCharsets.UTF_8));
+          out.write('\n');
+        }
+      }
+
+      final Set<String> directories = new LinkedHashSet<>();
+      final Map<Integer, List<String>> bySource = new HashMap<>();
+      for(final Map.Entry<String, Integer> entry : sources.entrySet()) {
+        bySource.computeIfAbsent(entry.getValue(), key -> new ArrayList<>()).add(entry.getKey());
+      }
+      final byte[] buffer = new byte[64 * 1024];
+      for(int i = 0; i < jars.size(); i++) {
+        final List<String> names = bySource.get(i);
+        if(names == null) {
+          continue;
+        }
+        try(final ZipFile zip = new ZipFile(jars.get(i))) {
+          for(final String name : names) {
+            directories(out, name, directories);
+            entry(out, name);
+            try(final InputStream is = zip.getInputStream(zip.getEntry(name))) {
+              int read;
+              while((read = is.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void duplicate(final String name, final File first, final File second) {
+    switch(this.duplicatesStrategy) {
+      case FAIL:
+        throw new GradleException("Duplicate entry " + name + " in " + first.getName() + " and " + second.getName());
+      case WARN:
+        this.getLogger().warn("Duplicate entry {} in {} and {}, keeping the first", name, first.getName(), second.getName());
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static boolean skip(final String name) {
+    if(name.endsWith("module-info.class") || name.equalsIgnoreCase("META-INF/INDEX.LIST")) {
+      return true;
+    }
+    if(name.regionMatches(true, 0, "META-INF/", 0, 9) && name.indexOf('/', 9) == -1) {
+      final String upper = name.toUpperCase(Locale.ROOT);
+      return upper.endsWith(".SF") || upper.endsWith(".DSA") || upper.endsWith(".RSA") || upper.endsWith(".EC") || upper.startsWith("META-INF/SIG-");
+    }
+    return false;
+  }
+
+  private static void services(final ZipFile zip, final ZipEntry entry, final Set<String> providers) throws IOException {
+    try(final BufferedReader reader = new BufferedReader(new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+      String line;
+      while((line = reader.readLine()) != null) {
+        final int comment = line.indexOf('#');
+        final String provider = (comment == -1 ? line : line.substring(0, comment)).trim();
+        if(!provider.isEmpty()) {
+          providers.add(provider);
+        }
+      }
+    }
+  }
+
+  private static void directories(final ZipOutputStream out, final String name, final Set<String> directories) throws IOException {
+    for(int i = name.indexOf('/'); i != -1; i = name.indexOf('/', i + 1)) {
+      final String directory = name.substring(0, i + 1);
+      if(directories.add(directory)) {
+        entry(out, directory);
+      }
+    }
+  }
+
+  private static void entry(final ZipOutputStream out, final String name) throws IOException {
+    final ZipEntry entry = new ZipEntry(name);
+    entry.setTime(TIME);
+    out.putNextEntry(entry);
+  }
+}
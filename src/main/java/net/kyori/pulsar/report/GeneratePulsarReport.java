@@ -0,0 +1,121 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.report;
+
+import groovy.json.JsonOutput;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Writes the {@link PulsarMetrics measurements} taken during the build as JSON.
+ *
+ * <p>This task only runs when requested, after the tasks it reports on, unless the report is
+ * {@link net.kyori.pulsar.PulsarExtension#setReport(boolean) enabled}, in which case it finalizes them.
+ * As measurements are taken during the build, it is never up to date.</p>
+ */
+public class GeneratePulsarReport extends DefaultTask {
+  private PulsarMetrics metrics;
+  private File destination;
+  private boolean buildScan;
+
+  public GeneratePulsarReport() {
+    this.getOutputs().upToDateWhen(task -> false);
+  }
+
+  @Internal
+  public PulsarMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  public void setMetrics(final PulsarMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @OutputFile
+  public File getDestination() {
+    return this.destination;
+  }
+
+  public void setDestination(final File destination) {
+    this.destination = destination;
+  }
+
+  /**
+   * Gets if measurements should also be added to the build scan as custom values, when the build scan plugin is applied.
+   *
+   * @return {@code true} if measurements should be added to the build scan
+   */
+  @Input
+  public boolean isBuildScan() {
+    return this.buildScan;
+  }
+
+  public void setBuildScan(final boolean buildScan) {
+    this.buildScan = buildScan;
+  }
+
+  @TaskAction
+  public void generate() {
+    final Map<String, Object> metrics = this.metrics.toMap();
+    try {
+      Files.write(this.destination.toPath(), JsonOutput.prettyPrint(JsonOutput.toJson(metrics)).getBytes(StandardCharsets.UTF_8));
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while writing report", e);
+    }
+
+    if(this.buildScan) {
+      final Object extension = this.getProject().getRootProject().getExtensions().findByName("buildScan");
+      if(extension != null) {
+        // the build scan plugin is not a dependency, so its extension is called dynamically
+        this.values(extension, "pulsar", metrics);
+      } else {
+        this.getLogger().info("Build scan plugin is not applied, not adding custom values");
+      }
+    }
+  }
+
+  private void values(final Object extension, final String prefix, final Map<String, Object> values) {
+    for(final Map.Entry<String, Object> entry : values.entrySet()) {
+      final String name = prefix + '.' + entry.getKey();
+      if(entry.getValue() instanceof Map) {
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> map = (Map<String, Object>) entry.getValue();
+        this.values(extension, name, map);
+      } else {
+        InvokerHelper.invokeMethod(extension, "value", new Object[]{name, String.valueOf(entry.getValue())});
+      }
+    }
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.report;
+
+import groovy.json.JsonOutput;
+import net.kyori.pulsar.AbstractDistributionTask;
+import net.kyori.pulsar.dependency.Attribution;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reports the size of a distribution as JSON and HTML, and fails if it exceeds its {@link PulsarBudget budget}.
+ *
+ * <p>Every jar is attributed to the first-level dependency which introduced it, and every first-level
+ * dependency is reported with the jars it introduced and the cumulative weight of its subtree. Jars
+ * which are not selected libraries, such as the project jar, are attributed to the project.</p>
+ */
+@CacheableTask
+public class GeneratePulsarSizeReport extends AbstractDistributionTask {
+  private PulsarBudget budget = new PulsarBudget();
+  private Callable<Attribution> attribution;
+  private @Nullable Attribution attributed;
+  private File json;
+  private File html;
+
+  /**
+   * Sets the attribution of the selected libraries, which is only called when the task executes.
+   *
+   * @param attribution the attribution
+   */
+  public void setAttribution(final Callable<Attribution> attribution) {
+    this.attribution = attribution;
+  }
+
+  @Input
+  public List<String> getIntroducers() {
+    final List<String> introducers = new ArrayList<>();
+    for(final File file : this.getClasspath()) {
+      introducers.add(this.introducer(file));
+    }
+    return introducers;
+  }
+
+  @Nested
+  public PulsarBudget getBudget() {
+    return this.budget;
+  }
+
+  public void setBudget(final PulsarBudget budget) {
+    this.budget = budget;
+  }
+
+  @OutputFile
+  public File getJson() {
+    return this.json;
+  }
+
+  public void setJson(final File json) {
+    this.json = json;
+  }
+
+  @OutputFile
+  public File getHtml() {
+    return this.html;
+  }
+
+  public void setHtml(final File html) {
+    this.html = html;
+  }
+
+  @TaskAction
+  public void generate() {
+    final Map<File, Jar> jars = new LinkedHashMap<>();
+    final Map<String, Group> groups = new LinkedHashMap<>();
+    final Weight total = new Weight();
+    for(final File file : this.getClasspath()) {
+      final Jar jar = new Jar(this.path(file), file.length(), this.classes(file), this.introducer(file));
+      jars.put(file, jar);
+      groups.computeIfAbsent(jar.introducer, Group::new).introduced.add(jar);
+      total.add(jar);
+    }
+    final Map<String, Set<File>> subtrees = this.attribution().subtrees();
+    for(final Group group : groups.values()) {
+      final Set<File> subtree = subtrees.get(group.name);
+      if(subtree != null) {
+        for(final File file : subtree) {
+          final Jar jar = jars.get(file);
+          if(jar != null) {
+            group.subtree.add(jar);
+          }
+        }
+      } else {
+        for(final Jar jar : group.introduced.jars) {
+          group.subtree.add(jar);
+        }
+      }
+    }
+
+    final List<Group> dependencies = new ArrayList<>(groups.values());
+    dependencies.sort(Comparator.comparingLong((Group group) -> group.subtree.bytes).reversed());
+    final List<Jar> sorted = new ArrayList<>(jars.values());
+    sorted.sort(Comparator.comparingLong((Jar jar) -> jar.bytes).reversed());
+    final List<String> violations = this.violations(total);
+
+    try {
+      Files.write(this.json.toPath(), JsonOutput.prettyPrint(JsonOutput.toJson(this.json(total, violations, dependencies, sorted))).getBytes(StandardCharsets.UTF_8));
+      Files.write(this.html.toPath(), this.html(total, violations, dependencies, sorted).getBytes(StandardCharsets.UTF_8));
+    } catch(final IOException e) {
+      throw new GradleException("Encountered an exception while writing report", e);
+    }
+
+    if(!violations.isEmpty()) {
+      final StringBuilder message = new StringBuilder("Distribution exceeds its budget: ").append(String.join("; ", violations)).append('.');
+      if(!dependencies.isEmpty()) {
+        final Group largest = dependencies.get(0);
+        message.append(" The largest dependency is ").append(largest.name)
+          .append(", with ").append(largest.subtree.bytes).append(" bytes in ").append(largest.subtree.jars.size()).append(" jars.");
+      }
+      throw new GradleException(message.append(" See the report at ").append(this.html.toURI()).toString());
+    }
+  }
+
+  private List<String> violations(final Weight total) {
+    final List<String> violations = new ArrayList<>();
+    if(this.budget.getMaxBytes() != null && total.bytes > this.budget.getMaxBytes()) {
+      violations.add(total.bytes + " bytes exceeds the budget of " + this.budget.getMaxBytes() + " bytes");
+    }
+    if(this.budget.getMaxJars() != null && total.jars.size() > this.budget.getMaxJars()) {
+      violations.add(total.jars.size() + " jars exceeds the budget of " + this.budget.getMaxJars() + " jars");
+    }
+    if(this.budget.getMaxClasses() != null && total.classes > this.budget.getMaxClasses()) {
+      violations.add(total.classes + " classes exceeds the budget of " + this.budget.getMaxClasses() + " classes");
+    }
+    return violations;
+  }
+
+  private Map<String, Object> json(final Weight total, final List<String> violations, final List<Group> dependencies, final List<Jar> jars) {
+    final Map<String, Object> json = new LinkedHashMap<>();
+    json.put("total", total.toMap());
+    final Map<String, Object> budget = new LinkedHashMap<>();
+    budget.put("maxBytes", this.budget.getMaxBytes());
+    budget.put("maxJars", this.budget.getMaxJars());
+    budget.put("maxClasses", this.budget.getMaxClasses());
+    json.put("budget", budget);
+    json.put("violations", violations);
+    final List<Map<String, Object>> groups = new ArrayList<>(dependencies.size());
+    for(final Group group : dependencies) {
+      final Map<String, Object> map = new LinkedHashMap<>();
+      map.put("name", group.name);
+      map.put("introduced", group.introduced.toMap());
+      map.put("subtree", group.subtree.toMap());
+      groups.add(map);
+    }
+    json.put("dependencies", groups);
+    final List<Map<String, Object>> entries = new ArrayList<>(jars.size());
+    for(final Jar jar : jars) {
+      final Map<String, Object> map = new LinkedHashMap<>();
+      map.put("path", jar.path);
+      map.put("bytes", jar.bytes);
+      map.put("classes", jar.classes);
+      map.put("introducedBy", jar.introducer);
+      entries.add(map);
+    }
+    json.put("jars", entries);
+    return json;
+  }
+
+  private String html(final Weight total, final List<String> violations, final List<Group> dependencies, final List<Jar> jars) {
+    final StringBuilder sb = new StringBuilder(4096);
+    sb.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>").append(escape(this.getProject().getName())).append(" distribution size</title>\n");
+    sb.append("<style>body{font-family:sans-serif}table{border-collapse:collapse}th,td{border:1px solid #ccc;padding:2px 8px}td.n{text-align:right}.violation{color:#b00}</style>\n");
+    sb.append("</head>\n<body>\n<h1>").append(escape(this.getProject().getName())).append(" distribution size</h1>\n");
+    sb.append("<p>").append(total.jars.size()).append(" jars, ").append(total.bytes).append(" bytes, ").append(total.classes).append(" classes</p>\n");
+    for(final String violation : violations) {
+      sb.append("<p class=\"violation\">").append(escape(violation)).append("</p>\n");
+    }
+    sb.append("<h2>First-level dependencies</h2>\n<table>\n<tr><th>Dependency</th><th>Jars</th><th>Bytes</th><th>Classes</th><th>Subtree jars</th><th>Subtree bytes</th><th>Subtree classes</th></tr>\n");
+    for(final Group group : dependencies) {
+      sb.append("<tr><td>").append(escape(group.name)).append("</td>");
+      cells(sb, group.introduced);
+      cells(sb, group.subtree);
+      sb.append("</tr>\n");
+    }
+    sb.append("</table>\n<h2>Jars</h2>\n<table>\n<tr><th>Path</th><th>Bytes</th><th>Classes</th><th>Introduced by</th></tr>\n");
+    for(final Jar jar : jars) {
+      sb.append("<tr><td>").append(escape(jar.path)).append("</td><td class=\"n\">").append(jar.bytes).append("</td><td class=\"n\">").append(jar.classes)
+        .append("</td><td>").append(escape(jar.introducer)).append("</td></tr>\n");
+    }
+    sb.append("</table>\n</body>\n</html>\n");
+    return sb.toString();
+  }
+
+  private static void cells(final StringBuilder sb, final Weight weight) {
+    sb.append("<td class=\"n\">").append(weight.jars.size()).append("</td><td class=\"n\">").append(weight.bytes).append("</td><td class=\"n\">").append(weight.classes).append("</td>");
+  }
+
+  private static String escape(final String string) {
+    return string.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+  }
+
+  private Attribution attribution() {
+    if(this.attributed == null) {
+      try {
+        this.attributed = this.attribution.call();
+      } catch(final Exception e) {
+        throw new GradleException("Encountered an exception while attributing libraries", e);
+      }
+    }
+    return this.attributed;
+  }
+
+  private String introducer(final File file) {
+    final String introducer = this.attribution().introducer(file);
+    return introducer != null ? introducer : "project " + this.getProject().getPath();
+  }
+
+  // counts the classes of a jar, ignoring those under META-INF, such as multi-release versions
+  private int classes(final File file) {
+    final String name = file.getName().toLowerCase(Locale.ROOT);
+    if(!name.endsWith(".jar") && !name.endsWith(".zip")) {
+      return 0;
+    }
+    int classes = 0;
+    try(final ZipFile zip = new ZipFile(file)) {
+      for(final Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+        final String entry = entries.nextElement().getName();
+        if(entry.endsWith(".class") && !entry.startsWith("META-INF/")) {
+          classes++;
+        }
+      }
+    } catch(final IOException e) {
+      this.getLogger().info("Could not count the classes of {}, counting none", file, e);
+      return 0;
+    }
+    return classes;
+  }
+
+  private static final class Jar {
+    final String path;
+    final long bytes;
+    final int classes;
+    final String introducer;
+
+    Jar(final String path, final long bytes, final int classes, final String introducer) {
+      this.path = path;
+      this.bytes = bytes;
+      this.classes = classes;
+      this.introducer = introducer;
+    }
+  }
+
+  private static final class Weight {
+    final List<Jar> jars = new ArrayList<>();
+    long bytes;
+    long classes;
+
+    void add(final Jar jar) {
+      this.jars.add(jar);
+      this.bytes += jar.bytes;
+      this.classes += jar.classes;
+    }
+
+    Map<String, Object> toMap() {
+      final Map<String, Object> map = new LinkedHashMap<>(4);
+      map.put("jars", this.jars.size());
+      map.put("bytes", this.bytes);
+      map.put("classes", this.classes);
+      return map;
+    }
+  }
+
+  private static final class Group {
+    final String name;
+    final Weight introduced = new Weight();
+    final Weight subtree = new Weight();
+
+    Group(final String name) {
+      this.name = name;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.report;
+
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * Limits on the size of a distribution, checked by {@link GeneratePulsarSizeReport}.
+ *
+ * <p>Limits which are not set are not checked.</p>
+ */
+public class PulsarBudget {
+  private @Nullable Long maxBytes;
+  private @Nullable Integer maxJars;
+  private @Nullable Integer maxClasses;
+
+  /**
+   * Gets the maximum total size of the jars, in bytes.
+   *
+   * @return the maximum size, or {@code null}
+   */
+  @Input
+  @Optional
+  public @Nullable Long getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  public void setMaxBytes(final @Nullable Long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Gets the maximum number of jars.
+   *
+   * @return the maximum number of jars, or {@code null}
+   */
+  @Input
+  @Optional
+  public @Nullable Integer getMaxJars() {
+    return this.maxJars;
+  }
+
+  public void setMaxJars(final @Nullable Integer maxJars) {
+    this.maxJars = maxJars;
+  }
+
+  /**
+   * Gets the maximum number of classes across the jars.
+   *
+   * @return the maximum number of classes, or {@code null}
+   */
+  @Input
+  @Optional
+  public @Nullable Integer getMaxClasses() {
+    return this.maxClasses;
+  }
+
+  public void setMaxClasses(final @Nullable Integer maxClasses) {
+    this.maxClasses = maxClasses;
+  }
+
+  /**
+   * Gets if any limit is set.
+   *
+   * @return {@code true} if any limit is set
+   */
+  @Internal
+  public boolean isConfigured() {
+    return this.maxBytes != null || this.maxJars != null || this.maxClasses != null;
+  }
+}
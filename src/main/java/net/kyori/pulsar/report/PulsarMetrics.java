@@ -0,0 +1,156 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.report;
+
+import org.gradle.api.Task;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements taken while building a distribution.
+ *
+ * <p>Measurements only cover work performed in the current build: resolution which is not
+ * required, or tasks which are up-to-date, are not measured.</p>
+ */
+public final class PulsarMetrics {
+  private final Map<String, Resolution> resolutions = new LinkedHashMap<>();
+  private final Map<String, Long> started = new HashMap<>();
+  private final Map<String, Long> tasks = new LinkedHashMap<>();
+  private long included;
+  private long excluded;
+  private long pruned;
+  private long ruleMatches;
+  private long artifacts;
+  private long selectedBytes;
+
+  /**
+   * Records the resolution of a configuration.
+   *
+   * @param configuration the configuration name
+   * @param nanos the time taken to resolve the graph
+   * @param nodes the number of components visited
+   */
+  public synchronized void resolved(final String configuration, final long nanos, final int nodes) {
+    this.resolutions.put(configuration, new Resolution(nanos, nodes));
+  }
+
+  /**
+   * Records the decisions made while walking a graph.
+   *
+   * @param included the number of components included
+   * @param excluded the number of components excluded
+   * @param pruned the number of components excluded along with their dependencies
+   * @param ruleMatches the number of components matched by a rule
+   */
+  public synchronized void decided(final long included, final long excluded, final long pruned, final long ruleMatches) {
+    this.included += included;
+    this.excluded += excluded;
+    this.pruned += pruned;
+    this.ruleMatches += ruleMatches;
+  }
+
+  /**
+   * Records the artifacts selected for the distribution.
+   *
+   * @param artifacts the number of artifacts
+   * @param bytes the total size of the artifacts, whether or not they are copied
+   */
+  public synchronized void selected(final long artifacts, final long bytes) {
+    this.artifacts = artifacts;
+    this.selectedBytes = bytes;
+  }
+
+  /**
+   * Records the execution time of {@code task}.
+   *
+   * @param task the task
+   */
+  public void time(final Task task) {
+    task.doFirst(ignored -> {
+      synchronized(this) {
+        this.started.put(task.getName(), System.nanoTime());
+      }
+    });
+    task.doLast(ignored -> {
+      synchronized(this) {
+        final Long start = this.started.remove(task.getName());
+        if(start != null) {
+          this.tasks.put(task.getName(), System.nanoTime() - start);
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets the measurements as a map of names to values, with times in milliseconds.
+   *
+   * @return the measurements
+   */
+  public synchronized Map<String, Object> toMap() {
+    final Map<String, Object> resolutions = new LinkedHashMap<>();
+    long nodes = 0;
+    for(final Map.Entry<String, Resolution> entry : this.resolutions.entrySet()) {
+      final Map<String, Object> resolution = new LinkedHashMap<>();
+      resolution.put("timeMillis", millis(entry.getValue().nanos));
+      resolution.put("nodes", entry.getValue().nodes);
+      resolutions.put(entry.getKey(), resolution);
+      nodes += entry.getValue().nodes;
+    }
+    final Map<String, Object> decisions = new LinkedHashMap<>();
+    decisions.put("included", this.included);
+    decisions.put("excluded", this.excluded);
+    decisions.put("pruned", this.pruned);
+    decisions.put("ruleMatches", this.ruleMatches);
+    final Map<String, Object> tasks = new LinkedHashMap<>();
+    for(final Map.Entry<String, Long> entry : this.tasks.entrySet()) {
+      tasks.put(entry.getKey(), millis(entry.getValue()));
+    }
+
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put("resolution", resolutions);
+    map.put("nodes", nodes);
+    map.put("decisions", decisions);
+    map.put("artifacts", this.artifacts);
+    map.put("selectedBytes", this.selectedBytes);
+    map.put("tasks", tasks);
+    return map;
+  }
+
+  private static long millis(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static final class Resolution {
+    final long nanos;
+    final int nodes;
+
+    Resolution(final long nanos, final int nodes) {
+      this.nanos = nanos;
+      this.nodes = nodes;
+    }
+  }
+}
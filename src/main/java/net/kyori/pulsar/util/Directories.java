@@ -0,0 +1,86 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class Directories {
+  private Directories() {
+  }
+
+  /**
+   * Removes everything within {@code root} which is not in {@code keep}, along with any directories left empty.
+   *
+   * <p>Symbolic links are removed, never followed.</p>
+   *
+   * @param root the root directory
+   * @param keep the absolute, normalized paths to keep
+   * @param removed called with each file removed
+   * @throws IOException if an exception is encountered while removing
+   */
+  public static void retain(final Path root, final Set<Path> keep, final Consumer<Path> removed) throws IOException {
+    if(!Files.isDirectory(root)) {
+      return;
+    }
+    final List<Path> paths;
+    try(final Stream<Path> stream = Files.walk(root)) {
+      paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+    }
+    for(final Path path : paths) {
+      if(path.equals(root) || keep.contains(path)) {
+        continue;
+      }
+      if(Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+        try(final Stream<Path> children = Files.list(path)) {
+          if(children.findAny().isPresent()) {
+            continue;
+          }
+        }
+      } else {
+        removed.accept(path);
+      }
+      Files.delete(path);
+    }
+  }
+
+  /**
+   * Removes everything within {@code root}, leaving it empty.
+   *
+   * @param root the root directory
+   * @throws IOException if an exception is encountered while removing
+   */
+  public static void clear(final Path root) throws IOException {
+    retain(root, Collections.emptySet(), path -> {});
+  }
+}
@@ -27,7 +27,6 @@ import org.gradle.api.Project;
 import org.gradle.api.Transformer;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
-import org.gradle.api.artifacts.ResolvedDependency;
 
 import java.util.Objects;
 
@@ -53,10 +52,6 @@ public final class Identifier {
     this(dependency.getGroup(), dependency.getName(), dependency.getVersion());
   }
 
-  public Identifier(final ResolvedDependency dependency) {
-    this(dependency.getModule().getId());
-  }
-
   public Identifier(final ModuleVersionIdentifier id) {
     this(id.getGroup(), id.getName(), id.getVersion());
   }
@@ -67,14 +62,36 @@ public final class Identifier {
     this.version = version;
   }
 
-  public boolean isSatisfiedBy(final ResolvedDependency dependency) {
-    return dependency.getModuleGroup().matches(this.group)
-      && dependency.getModuleName().matches(this.name)
-      && matches(dependency.getModuleVersion(), this.version);
+  public String getGroup() {
+    return this.group;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public @Nullable String getVersion() {
+    return this.version;
+  }
+
+  public boolean isSatisfiedBy(final ModuleVersionIdentifier id) {
+    return id.getGroup().matches(this.group)
+      && id.getName().matches(this.name)
+      && matches(id.getVersion(), this.version);
   }
 
   public Transformer<String, String> renamingTransformer() {
-    return original -> this.group.replace('.', '/') + '/' + this.name + '/' + this.version + '/' + this.name + '-' + this.version + '.' + JAR_EXTENSION;
+    final String path = this.path();
+    return original -> path;
+  }
+
+  /**
+   * Gets the path of this identifier's jar within a repository-style layout.
+   *
+   * @return the path
+   */
+  public String path() {
+    return this.group.replace('.', '/') + '/' + this.name + '/' + this.version + '/' + this.name + '-' + this.version + '.' + JAR_EXTENSION;
   }
 
   private static boolean matches(final String a, final String b) {
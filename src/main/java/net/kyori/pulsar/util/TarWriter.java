@@ -0,0 +1,242 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * A minimal, reproducible tar writer.
+ *
+ * <p>Entries are written in the POSIX ustar format, with a fixed modification time and owner. Names
+ * which do not fit in a ustar header are written with a pax extended header.</p>
+ */
+public final class TarWriter implements Closeable {
+  private static final int BLOCK = 512;
+  private static final int FILE_MODE = 0644;
+  private static final int DIRECTORY_MODE = 0755;
+  private static final int EXECUTABLE_MODE = 0755;
+  private final OutputStream out;
+  private final byte[] buffer = new byte[64 * 1024];
+
+  public TarWriter(final OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes a directory entry.
+   *
+   * @param name the name, without a trailing {@code /}
+   * @throws IOException if an exception is encountered while writing
+   */
+  public void directory(final String name) throws IOException {
+    this.header(name + '/', 0, '5', DIRECTORY_MODE);
+  }
+
+  /**
+   * Writes a file entry with the contents of {@code file}.
+   *
+   * @param name the name
+   * @param file the file
+   * @throws IOException if an exception is encountered while writing
+   */
+  public void file(final String name, final File file) throws IOException {
+    this.file(name, file, false);
+  }
+
+  /**
+   * Writes a file entry with the contents of {@code file}.
+   *
+   * @param name the name
+   * @param file the file
+   * @param executable if the entry should be marked executable
+   * @throws IOException if an exception is encountered while writing
+   */
+  public void file(final String name, final File file, final boolean executable) throws IOException {
+    final long size = file.length();
+    this.header(name, size, '0', executable ? EXECUTABLE_MODE : FILE_MODE);
+    long written = 0;
+    try(final InputStream is = Files.newInputStream(file.toPath())) {
+      int read;
+      while((read = is.read(this.buffer)) != -1) {
+        this.out.write(this.buffer, 0, read);
+        written += read;
+      }
+    }
+    if(written != size) {
+      throw new IOException(file + " changed while being written");
+    }
+    this.pad(size);
+  }
+
+  /**
+   * Writes a file entry with the contents {@code bytes}.
+   *
+   * @param name the name
+   * @param bytes the contents
+   * @throws IOException if an exception is encountered while writing
+   */
+  public void file(final String name, final byte[] bytes) throws IOException {
+    this.header(name, bytes.length, '0', FILE_MODE);
+    this.out.write(bytes);
+    this.pad(bytes.length);
+  }
+
+  /**
+   * Writes the end of archive marker, without closing the underlying stream.
+   *
+   * @throws IOException if an exception is encountered while writing
+   */
+  public void finish() throws IOException {
+    this.out.write(new byte[BLOCK * 2]);
+    this.out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.finish();
+    this.out.close();
+  }
+
+  private void header(final String name, final long size, final char type, final int mode) throws IOException {
+    final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    String prefix = "";
+    String suffix = name;
+    if(bytes.length > 100) {
+      final int split = split(name);
+      if(split == -1) {
+        this.pax(name);
+        suffix = ascii(name, 100);
+      } else {
+        prefix = name.substring(0, split);
+        suffix = name.substring(split + 1);
+      }
+    }
+
+    final byte[] header = new byte[BLOCK];
+    put(header, 0, 100, suffix);
+    octal(header, 100, 8, mode);
+    octal(header, 108, 8, 0);
+    octal(header, 116, 8, 0);
+    octal(header, 124, 12, size);
+    octal(header, 136, 12, 0);
+    header[156] = (byte) type;
+    put(header, 257, 6, "ustar");
+    put(header, 263, 2, "00");
+    put(header, 345, 155, prefix);
+    checksum(header);
+    this.out.write(header);
+  }
+
+  private void pax(final String name) throws IOException {
+    final String record = record("path", name);
+    final byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+    final byte[] header = new byte[BLOCK];
+    put(header, 0, 100, "PaxHeader");
+    octal(header, 100, 8, FILE_MODE);
+    octal(header, 108, 8, 0);
+    octal(header, 116, 8, 0);
+    octal(header, 124, 12, bytes.length);
+    octal(header, 136, 12, 0);
+    header[156] = (byte) 'x';
+    put(header, 257, 6, "ustar");
+    put(header, 263, 2, "00");
+    checksum(header);
+    this.out.write(header);
+    this.out.write(bytes);
+    this.pad(bytes.length);
+  }
+
+  private void pad(final long size) throws IOException {
+    final int remainder = (int) (size % BLOCK);
+    if(remainder != 0) {
+      this.out.write(new byte[BLOCK - remainder]);
+    }
+  }
+
+  // a pax record is "<length> <key>=<value>\n", where the length includes itself
+  private static String record(final String key, final String value) {
+    final int base = 3 + key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length;
+    int length = base + String.valueOf(base).length();
+    if(String.valueOf(length).length() != String.valueOf(base).length()) {
+      length = base + String.valueOf(length).length();
+    }
+    return length + " " + key + '=' + value + '\n';
+  }
+
+  // finds a '/' splitting name into a prefix of at most 155 bytes and a name of at most 100 bytes
+  private static int split(final String name) {
+    if(name.length() != name.getBytes(StandardCharsets.UTF_8).length) {
+      return -1;
+    }
+    for(int i = name.indexOf('/'); i != -1; i = name.indexOf('/', i + 1)) {
+      if(i <= 155 && name.length() - i - 1 <= 100 && name.length() - i - 1 > 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String ascii(final String string, final int length) {
+    final StringBuilder sb = new StringBuilder(length);
+    for(int i = 0; i < string.length() && sb.length() < length; i++) {
+      final char c = string.charAt(i);
+      sb.append(c < 0x80 ? c : '_');
+    }
+    return sb.toString();
+  }
+
+  private static void put(final byte[] header, final int offset, final int length, final String value) {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+  }
+
+  private static void octal(final byte[] header, final int offset, final int length, final long value) {
+    final String octal = Long.toOctalString(value);
+    if(octal.length() > length - 1) {
+      throw new IllegalArgumentException("Value " + value + " does not fit in " + length + " bytes");
+    }
+    for(int i = 0; i < length - 1 - octal.length(); i++) {
+      header[offset + i] = '0';
+    }
+    put(header, offset + length - 1 - octal.length(), octal.length(), octal);
+  }
+
+  private static void checksum(final byte[] header) {
+    for(int i = 148; i < 156; i++) {
+      header[i] = ' ';
+    }
+    long sum = 0;
+    for(final byte b : header) {
+      sum += b & 0xff;
+    }
+    octal(header, 148, 7, sum);
+    header[155] = ' ';
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.performance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Recorded timings, in milliseconds, which measurements may not exceed by more than a tolerance.
+ */
+final class Baselines {
+  private final Path file;
+  private final Properties properties = new Properties();
+  private final double tolerance;
+
+  Baselines(final Path file, final double tolerance) throws IOException {
+    this.file = file;
+    this.tolerance = tolerance;
+    if(Files.exists(file)) {
+      try(final InputStream is = Files.newInputStream(file)) {
+        this.properties.load(is);
+      }
+    }
+  }
+
+  /**
+   * Gets the largest acceptable measurement for {@code key}.
+   *
+   * @param key the key
+   * @return the limit, or {@code -1} if no baseline is recorded
+   */
+  long limit(final String key) {
+    final String value = this.properties.getProperty(key);
+    if(value == null) {
+      return -1;
+    }
+    return (long) (Long.parseLong(value) * (1 + this.tolerance));
+  }
+
+  void record(final String key, final long millis) {
+    this.properties.setProperty(key, String.valueOf(millis));
+  }
+
+  void clear() {
+    this.properties.clear();
+  }
+
+  void save() throws IOException {
+    Files.createDirectories(this.file.toAbsolutePath().getParent());
+    try(final OutputStream os = Files.newOutputStream(this.file)) {
+      this.properties.store(os, "pulsar performance timings, in milliseconds");
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.performance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates a project applying pulsar, depending on a graph of modules in a local file repository.
+ *
+ * <p>Module {@code i} depends on modules {@code 2i + 1} and {@code 2i + 2}, and every module depends
+ * on the last module, so the graph is both deep and shared. The project depends on module {@code 0}.</p>
+ */
+final class Fixture {
+  static final String GROUP = "net.kyori.fixture";
+  static final String VERSION = "1.0";
+  private final Path root;
+  private final int modules;
+
+  Fixture(final Path root, final int modules) {
+    this.root = root;
+    this.modules = modules;
+  }
+
+  Path getProjectDirectory() {
+    return this.root.resolve("project");
+  }
+
+  void generate() throws IOException {
+    final Path repository = this.root.resolve("repository");
+    for(int i = 0; i < this.modules; i++) {
+      this.module(repository, i);
+    }
+
+    final Path project = this.getProjectDirectory();
+    Files.createDirectories(project.resolve("src/main/java/fixture"));
+    write(project.resolve("settings.gradle"), "rootProject.name = 'fixture'\n");
+    write(project.resolve("build.gradle"), String.join("\n",
+      "plugins {",
+      "  id 'net.kyori.pulsar'",
+      "}",
+      "",
+      "group = '" + GROUP + "'",
+      "version = '" + VERSION + "'",
+      "",
+      "repositories {",
+      "  maven { url '" + repository.toUri() + "' }",
+      "}",
+      "",
+      "dependencies {",
+      "  implementation '" + GROUP + ":module0:" + VERSION + "'",
+      "}",
+      "",
+      "pulsar {",
+      "  bootstrap {",
+      "    moduleName = 'fixture'",
+      "    className = 'fixture.Main'",
+      "    paths {",
+      "      add 'libraries'",
+      "    }",
+      "  }",
+      "}",
+      ""
+    ));
+    write(project.resolve("src/main/java/fixture/Main.java"), String.join("\n",
+      "package fixture;",
+      "",
+      "public final class Main {",
+      "  public static void main(final String[] args) {",
+      "  }",
+      "}",
+      ""
+    ));
+  }
+
+  private void module(final Path repository, final int i) throws IOException {
+    final String name = "module" + i;
+    final Path directory = repository.resolve(GROUP.replace('.', '/')).resolve(name).resolve(VERSION);
+    Files.createDirectories(directory);
+
+    final StringBuilder dependencies = new StringBuilder();
+    for(final int child : new int[]{2 * i + 1, 2 * i + 2, this.modules - 1}) {
+      if(child > i && child < this.modules) {
+        dependencies.append("    <dependency><groupId>").append(GROUP).append("</groupId><artifactId>module").append(child)
+          .append("</artifactId><version>").append(VERSION).append("</version></dependency>\n");
+      }
+    }
+    write(directory.resolve(name + '-' + VERSION + ".pom"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+      + "  <modelVersion>4.0.0</modelVersion>\n"
+      + "  <groupId>" + GROUP + "</groupId>\n"
+      + "  <artifactId>" + name + "</artifactId>\n"
+      + "  <version>" + VERSION + "</version>\n"
+      + "  <dependencies>\n"
+      + dependencies
+      + "  </dependencies>\n"
+      + "</project>\n");
+
+    try(final OutputStream os = Files.newOutputStream(directory.resolve(name + '-' + VERSION + ".jar")); final JarOutputStream jar = new JarOutputStream(os)) {
+      jar.putNextEntry(new JarEntry("fixture/" + name + ".txt"));
+      jar.write(name.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static void write(final Path path, final String contents) throws IOException {
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+  }
+}
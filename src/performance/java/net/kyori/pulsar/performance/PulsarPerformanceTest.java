@@ -0,0 +1,144 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.performance;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures builds of a generated project against recorded baselines.
+ *
+ * <p>Each scenario is run a number of times after a warm-up run, and its median duration compared to
+ * the baseline for the fixture size. Baselines are machine-specific: they are recorded, rather than
+ * checked, when {@code pulsar.performance.record} is {@code true}. Otherwise a scenario without a
+ * baseline fails.</p>
+ *
+ * <p>Every measurement is written to the file named by {@code pulsar.performance.results}.</p>
+ */
+public class PulsarPerformanceTest {
+  private static final int MODULES = Integer.getInteger("pulsar.performance.modules", 200);
+  private static final int ITERATIONS = Integer.getInteger("pulsar.performance.iterations", 5);
+  private static final double TOLERANCE = Double.parseDouble(System.getProperty("pulsar.performance.tolerance", "0.25"));
+  private static final boolean RECORD = Boolean.getBoolean("pulsar.performance.record");
+  @ClassRule
+  public static final TemporaryFolder TEMPORARY = new TemporaryFolder();
+  private static Fixture fixture;
+  private static Baselines baselines;
+  private static Baselines results;
+
+  @BeforeClass
+  public static void setup() throws IOException {
+    fixture = new Fixture(TEMPORARY.getRoot().toPath(), MODULES);
+    fixture.generate();
+    baselines = new Baselines(Paths.get(System.getProperty("pulsar.performance.baselines")), TOLERANCE);
+    results = new Baselines(Paths.get(System.getProperty("pulsar.performance.results")), 0);
+    results.clear();
+  }
+
+  @AfterClass
+  public static void save() throws IOException {
+    results.save();
+    if(RECORD) {
+      baselines.save();
+    }
+  }
+
+  @Test
+  public void configuration() {
+    this.measure("configuration", () -> this.run("help"));
+  }
+
+  @Test
+  public void install() {
+    this.measure("install", () -> this.run("installPulsarDist", "--rerun-tasks"));
+  }
+
+  @Test
+  public void upToDate() {
+    this.run("installPulsarDist");
+    this.measure("upToDate", () -> {
+      final BuildResult result = this.run("installPulsarDist");
+      assertEquals(TaskOutcome.UP_TO_DATE, result.task(":installPulsarDist").getOutcome());
+      return result;
+    });
+  }
+
+  private BuildResult run(final String... arguments) {
+    final List<String> list = new ArrayList<>(Arrays.asList(arguments));
+    list.add("--offline");
+    list.add("--stacktrace");
+    return GradleRunner.create()
+      .withProjectDir(fixture.getProjectDirectory().toFile())
+      .withPluginClasspath(pluginClasspath())
+      .withArguments(list)
+      .build();
+  }
+
+  private void measure(final String scenario, final Supplier<BuildResult> build) {
+    build.get(); // warm up the daemon and the fixture
+    final long[] durations = new long[ITERATIONS];
+    for(int i = 0; i < ITERATIONS; i++) {
+      final long start = System.nanoTime();
+      build.get();
+      durations[i] = (System.nanoTime() - start) / 1000000;
+    }
+    Arrays.sort(durations);
+    final long median = durations[ITERATIONS / 2];
+    final String key = scenario + '.' + MODULES;
+    results.record(key, median);
+
+    if(RECORD) {
+      baselines.record(key, median);
+      return;
+    }
+    final long limit = baselines.limit(key);
+    assertTrue("No baseline is recorded for " + key + ", record one with -Ppulsar.performance.record=true", limit != -1);
+    assertTrue(key + " took " + median + "ms, exceeding the baseline limit of " + limit + "ms", median <= limit);
+  }
+
+  private static List<File> pluginClasspath() {
+    final List<File> files = new ArrayList<>();
+    for(final String path : System.getProperty("pulsar.performance.pluginClasspath").split(File.pathSeparator)) {
+      files.add(new File(path));
+    }
+    return files;
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar;
+
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Synthetic Gradle model objects.
+ *
+ * <p>Objects are dynamic proxies answering only the properties they are created with, so that they
+ * do not depend on the exact shape of Gradle's interfaces. They are equal only to themselves.</p>
+ */
+public final class Synthetic {
+  private static final int WIDTH = 100;
+  private static final int FAN_OUT = 10;
+
+  private Synthetic() {
+  }
+
+  public static ModuleVersionIdentifier moduleVersion(final String group, final String name, final String version) {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("getGroup", group);
+    properties.put("getName", name);
+    properties.put("getVersion", version);
+    return proxy(ModuleVersionIdentifier.class, properties);
+  }
+
+  public static Dependency dependency(final String group, final String name, final String version) {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("getGroup", group);
+    properties.put("getName", name);
+    properties.put("getVersion", version);
+    return proxy(Dependency.class, properties);
+  }
+
+  /**
+   * Creates a component without dependencies.
+   *
+   * @param group the group
+   * @param name the name
+   * @param version the version
+   * @return the component
+   */
+  public static ResolvedComponentResult component(final String group, final String name, final String version) {
+    final Map<String, Object> properties = new HashMap<>();
+    final Map<String, Object> id = new HashMap<>();
+    id.put("getDisplayName", group + ':' + name + ':' + version);
+    properties.put("getId", proxy(ComponentIdentifier.class, id));
+    properties.put("getModuleVersion", moduleVersion(group, name, version));
+    properties.put("getDependencies", new LinkedHashSet<DependencyResult>());
+    return proxy(ResolvedComponentResult.class, properties);
+  }
+
+  /**
+   * Makes {@code to} a dependency of {@code from}.
+   *
+   * @param from the dependent component
+   * @param to the dependency
+   */
+  @SuppressWarnings("unchecked")
+  public static void depend(final ResolvedComponentResult from, final ResolvedComponentResult to) {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("getSelected", to);
+    properties.put("getFrom", from);
+    ((Set<DependencyResult>) from.getDependencies()).add(proxy(ResolvedDependencyResult.class, properties));
+  }
+
+  /**
+   * Creates a graph of {@code nodes} components, returning the root.
+   *
+   * @param shape the shape of the graph
+   * @param nodes the number of components, excluding the root
+   * @return the root component
+   */
+  public static ResolvedComponentResult graph(final Shape shape, final int nodes) {
+    final List<ResolvedComponentResult> components = new ArrayList<>(nodes + 1);
+    for(int i = 0; i <= nodes; i++) {
+      components.add(component("net.kyori.synthetic.g" + (i % 50), "module" + i, "1.0." + i));
+    }
+    for(int i = 0; i <= nodes; i++) {
+      for(final int child : shape.children(i, nodes)) {
+        depend(components.get(i), components.get(child));
+      }
+    }
+    return components.get(0);
+  }
+
+  private static <T> T proxy(final Class<T> type, final Map<String, Object> properties) {
+    return type.cast(Proxy.newProxyInstance(Synthetic.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      switch(method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return type.getSimpleName() + properties.getOrDefault("getName", "");
+        default:
+          if(!properties.containsKey(method.getName())) {
+            throw new UnsupportedOperationException(method.toString());
+          }
+          return properties.get(method.getName());
+      }
+    }));
+  }
+
+  public enum Shape {
+    /**
+     * Every component is a direct dependency of the root.
+     */
+    WIDE {
+      @Override
+      int[] children(final int node, final int nodes) {
+        if(node != 0) {
+          return new int[0];
+        }
+        final int[] children = new int[nodes];
+        for(int i = 0; i < nodes; i++) {
+          children[i] = i + 1;
+        }
+        return children;
+      }
+    },
+    /**
+     * Every component depends on the next, in a single chain.
+     */
+    DEEP {
+      @Override
+      int[] children(final int node, final int nodes) {
+        return node < nodes ? new int[]{node + 1} : new int[0];
+      }
+    },
+    /**
+     * Components are arranged in layers of 100, each depending on 10 components of the next layer.
+     */
+    DIAMOND {
+      @Override
+      int[] children(final int node, final int nodes) {
+        if(node == 0) {
+          final int[] children = new int[Math.min(WIDTH, nodes)];
+          for(int i = 0; i < children.length; i++) {
+            children[i] = i + 1;
+          }
+          return children;
+        }
+        final int layer = (node - 1) / WIDTH;
+        final int next = (layer + 1) * WIDTH + 1;
+        if(next > nodes) {
+          return new int[0];
+        }
+        final int[] children = new int[FAN_OUT];
+        for(int i = 0; i < FAN_OUT; i++) {
+          children[i] = Math.min(nodes, next + (node + i * (WIDTH / FAN_OUT)) % WIDTH);
+        }
+        return children;
+      }
+    };
+
+    abstract int[] children(final int node, final int nodes);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelGzipOutputStreamTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void shutdown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testMultipleMembers() throws IOException {
+    // several blocks, and more than are held pending at once
+    final byte[] contents = new byte[7 * 1024 * 1024 + 123];
+    final Random random = new Random(1);
+    for(int i = 0; i < contents.length; i++) {
+      contents[i] = (byte) random.nextInt(16);
+    }
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try(final OutputStream gzip = new ParallelGzipOutputStream(out, this.executor, Deflater.DEFAULT_COMPRESSION, 1)) {
+      gzip.write(contents, 0, 1000);
+      gzip.write(contents[1000]);
+      gzip.write(contents, 1001, contents.length - 1001);
+    }
+    assertArrayEquals(contents, this.read(out.toByteArray()));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ParallelGzipOutputStream(out, this.executor, Deflater.DEFAULT_COMPRESSION, 1).close();
+    assertEquals(0, this.read(out.toByteArray()).length);
+  }
+
+  private byte[] read(final byte[] bytes) throws IOException {
+    try(final GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return ZipWriterTest.read(is);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.archive;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ZipWriterTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testReadBack() throws IOException {
+    final byte[] text = repeat("compressible text\n", 1000);
+    final byte[] noise = new byte[4096];
+    new Random(1).nextBytes(noise);
+    // compresses to about half its size, which is still more than is held in memory
+    final byte[] large = new byte[ZipWriter.IN_MEMORY * 3];
+    final Random random = new Random(2);
+    for(int i = 0; i < large.length; i++) {
+      large[i] = (byte) random.nextInt(16);
+    }
+    final File spill = new File(this.temporary.getRoot(), "large.spill");
+
+    final File archive = this.temporary.newFile("archive.zip");
+    try(final ZipWriter writer = new ZipWriter(Files.newOutputStream(archive.toPath()))) {
+      writer.write(ZipWriter.directory("libraries"));
+      writer.write(ZipWriter.prepare("libraries/text.txt", this.file("text.txt", text), Deflater.DEFAULT_COMPRESSION, new File(this.temporary.getRoot(), "text.spill")));
+      writer.write(ZipWriter.prepare("libraries/noise.bin", this.file("noise.bin", noise), Deflater.DEFAULT_COMPRESSION, new File(this.temporary.getRoot(), "noise.spill")));
+      writer.write(ZipWriter.prepare("libraries/large.bin", this.file("large.bin", large), Deflater.DEFAULT_COMPRESSION, spill));
+      writer.write(ZipWriter.stored("stored.txt", this.file("stored.txt", text)));
+    }
+    assertFalse("the spilled contents should be deleted once written", spill.exists());
+
+    try(final ZipFile zip = new ZipFile(archive)) {
+      assertEquals(5, zip.size());
+      assertTrue(zip.getEntry("libraries/").isDirectory());
+      assertEntry(zip, "libraries/text.txt", ZipEntry.DEFLATED, text);
+      assertEntry(zip, "libraries/noise.bin", ZipEntry.STORED, noise);
+      assertEntry(zip, "libraries/large.bin", ZipEntry.DEFLATED, large);
+      assertEntry(zip, "stored.txt", ZipEntry.STORED, text);
+    }
+  }
+
+  @Test
+  public void testTooManyEntries() throws IOException {
+    final ZipWriter writer = new ZipWriter(new ByteArrayOutputStream());
+    for(int i = 0; i < 0xffff; i++) {
+      writer.write(ZipWriter.directory("d" + i));
+    }
+    try {
+      writer.write(ZipWriter.directory("last"));
+      fail("an entry beyond the limit of a zip archive without zip64 extensions should be refused");
+    } catch(final IOException e) {
+      assertTrue(e.getMessage().contains("tar archive"));
+    }
+  }
+
+  @Test
+  public void testTooLargeEntry() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ZipWriter writer = new ZipWriter(out);
+    final long size = 0xffffffffL + 1;
+    try {
+      writer.write(new ZipWriter.Entry("large.bin", ZipEntry.STORED, 0, size, size, null, null, false, 0100644));
+      fail("an entry too large for a zip archive without zip64 extensions should be refused");
+    } catch(final IOException e) {
+      assertTrue(e.getMessage().contains("tar archive"));
+    }
+    assertEquals(0, out.size());
+  }
+
+  private static void assertEntry(final ZipFile zip, final String name, final int method, final byte[] contents) throws IOException {
+    final ZipEntry entry = zip.getEntry(name);
+    assertEquals(name, method, entry.getMethod());
+    try(final InputStream is = zip.getInputStream(entry)) {
+      assertArrayEquals(name, contents, read(is));
+    }
+  }
+
+  private File file(final String name, final byte[] contents) throws IOException {
+    final File file = new File(this.temporary.getRoot(), name);
+    Files.write(file.toPath(), contents);
+    return file;
+  }
+
+  private static byte[] repeat(final String string, final int times) {
+    final StringBuilder sb = new StringBuilder(string.length() * times);
+    for(int i = 0; i < times; i++) {
+      sb.append(string);
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] read(final InputStream is) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[64 * 1024];
+    int read;
+    while((read = is.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+}
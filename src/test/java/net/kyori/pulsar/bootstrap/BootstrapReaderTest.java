@@ -0,0 +1,140 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import javax.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BootstrapReaderTest {
+  @Test
+  public void testRoundTrip() throws IOException {
+    final PulsarBootstrapImpl.PathEntryImpl libraries = new PulsarBootstrapImpl.PathEntryImpl("libraries");
+    libraries.setMinDepth(1);
+    libraries.setMaxDepth(3);
+    final Map<String, String> properties = new LinkedHashMap<>();
+    properties.put("b", "\u00e9\u4e2d\ud83d\ude00");
+    properties.put("a", "");
+    final List<String> jars = Arrays.asList("libraries/a.jar", "libraries/b.jar");
+    final byte[] bytes = write(Arrays.asList(libraries, new PulsarBootstrapImpl.PathEntryImpl("config")), properties, jars);
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    for(final BootstrapReader.Configuration configuration : new BootstrapReader.Configuration[]{
+      BootstrapReader.read(new ByteArrayInputStream(bytes)),
+      BootstrapReader.read(ByteBuffer.wrap(bytes)),
+      BootstrapReader.read(direct)
+    }) {
+      assertEquals("example", configuration.getModuleName());
+      assertEquals("example.Main", configuration.getClassName());
+      assertEquals(2, configuration.getPaths().size());
+      assertEquals("libraries", configuration.getPaths().get(0).getName());
+      assertEquals(OptionalInt.of(1), configuration.getPaths().get(0).getMinDepth());
+      assertEquals(OptionalInt.of(3), configuration.getPaths().get(0).getMaxDepth());
+      assertEquals("config", configuration.getPaths().get(1).getName());
+      assertEquals(OptionalInt.empty(), configuration.getPaths().get(1).getMinDepth());
+      assertEquals(OptionalInt.empty(), configuration.getPaths().get(1).getMaxDepth());
+      assertEquals(Arrays.asList("a", "b"), Arrays.asList(configuration.getProperties().keySet().toArray()));
+      assertEquals(properties, configuration.getProperties());
+      assertEquals(jars, configuration.getLibraries());
+    }
+  }
+
+  @Test
+  public void testWithoutLibraries() throws IOException {
+    final byte[] bytes = write(Arrays.asList(new PulsarBootstrapImpl.PathEntryImpl("libraries")), new LinkedHashMap<>(), null);
+    assertNull(BootstrapReader.read(ByteBuffer.wrap(bytes)).getLibraries());
+  }
+
+  @Test
+  public void testTruncated() throws IOException {
+    final Map<String, String> properties = new LinkedHashMap<>();
+    properties.put("key", "value");
+    final byte[] bytes = write(Arrays.asList(new PulsarBootstrapImpl.PathEntryImpl("libraries")), properties, Arrays.asList("libraries/a.jar"));
+    for(int length = 0; length < bytes.length; length++) {
+      final byte[] truncated = Arrays.copyOf(bytes, length);
+      assertFails(() -> BootstrapReader.read(new ByteArrayInputStream(truncated)));
+      assertFails(() -> BootstrapReader.read(ByteBuffer.wrap(truncated)));
+    }
+  }
+
+  @Test
+  public void testTruncatedBody() throws IOException {
+    // a body length which covers the truncated body, so that only the body itself is found short
+    final byte[] bytes = write(Arrays.asList(new PulsarBootstrapImpl.PathEntryImpl("libraries")), new LinkedHashMap<>(), Arrays.asList("libraries/a.jar"));
+    final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+    ByteBuffer.wrap(truncated).putInt(8, truncated.length - 12);
+    assertFails(() -> BootstrapReader.read(new ByteArrayInputStream(truncated)));
+    assertFails(() -> BootstrapReader.read(ByteBuffer.wrap(truncated)));
+  }
+
+  @Test
+  public void testWrongVersion() throws IOException {
+    final byte[] bytes = write(Arrays.asList(new PulsarBootstrapImpl.PathEntryImpl("libraries")), new LinkedHashMap<>(), null);
+    ByteBuffer.wrap(bytes).putInt(4, BootstrapConstants.BINARY_VERSION + 1);
+    assertFails(() -> BootstrapReader.read(new ByteArrayInputStream(bytes)));
+    assertFails(() -> BootstrapReader.read(ByteBuffer.wrap(bytes)));
+  }
+
+  @Test
+  public void testWrongMagic() throws IOException {
+    final byte[] bytes = write(Arrays.asList(new PulsarBootstrapImpl.PathEntryImpl("libraries")), new LinkedHashMap<>(), null);
+    bytes[0] = '<';
+    assertFails(() -> BootstrapReader.read(new ByteArrayInputStream(bytes)));
+    assertFails(() -> BootstrapReader.read(ByteBuffer.wrap(bytes)));
+  }
+
+  private static byte[] write(final List<PulsarBootstrapImpl.PathEntryImpl> paths, final Map<String, String> properties, final @Nullable List<String> libraries) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryBootstrapWriter(out).write("example", "example.Main", paths, properties, libraries);
+    return out.toByteArray();
+  }
+
+  private static void assertFails(final Read read) {
+    try {
+      read.read();
+    } catch(final IOException e) {
+      return;
+    }
+    fail("Expected an IOException");
+  }
+
+  private interface Read {
+    BootstrapReader.Configuration read() throws IOException;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.bootstrap;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BootstrapWriterTest {
+  @Test
+  public void testOutput() throws IOException {
+    final PulsarBootstrapImpl.PathEntryImpl libraries = new PulsarBootstrapImpl.PathEntryImpl("libraries");
+    libraries.setMinDepth(1);
+    libraries.setMaxDepth(3);
+    final Map<String, String> properties = new LinkedHashMap<>();
+    properties.put("b", "2");
+    properties.put("a", "1");
+
+    assertEquals(
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+        + "<application module=\"example\" class=\"example.Main\">\n"
+        + "  <path min-depth=\"1\" max-depth=\"3\">libraries</path>\n"
+        + "  <path>config</path>\n"
+        + "  <property key=\"a\">1</property>\n"
+        + "  <property key=\"b\">2</property>\n"
+        + "</application>\n",
+      new String(write("example", "example.Main", Arrays.asList(libraries, new PulsarBootstrapImpl.PathEntryImpl("config")), properties), StandardCharsets.UTF_8)
+    );
+  }
+
+  @Test
+  public void testDeterministic() throws IOException {
+    final List<PulsarBootstrapImpl.PathEntryImpl> paths = Collections.singletonList(new PulsarBootstrapImpl.PathEntryImpl("libraries"));
+    final Map<String, String> forward = new LinkedHashMap<>();
+    final Map<String, String> reverse = new LinkedHashMap<>();
+    for(int i = 0; i < 100; i++) {
+      forward.put("property." + i, "value " + i);
+      reverse.put("property." + (99 - i), "value " + (99 - i));
+    }
+
+    final byte[] expected = write("example", "example.Main", paths, forward);
+    assertArrayEquals(expected, write("example", "example.Main", paths, forward));
+    assertArrayEquals(expected, write("example", "example.Main", paths, reverse));
+  }
+
+  @Test
+  public void testEscaping() throws Exception {
+    final String attribute = "a \"quoted\" <tag> & tab\tnewline\nreturn\r";
+    final String text = "a \"quoted\" <tag> & tab\tnewline\n";
+    final Map<String, String> properties = new LinkedHashMap<>();
+    properties.put(attribute, text);
+    final byte[] bytes = write(attribute, "example.Main", Collections.singletonList(new PulsarBootstrapImpl.PathEntryImpl("<&>")), properties);
+
+    // a parser normalizes whitespace in attributes unless it was escaped
+    final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(bytes));
+    final Element application = document.getDocumentElement();
+    assertEquals(attribute, application.getAttribute(BootstrapConstants.MODULE_ATTRIBUTE_NAME));
+    assertEquals("<&>", application.getElementsByTagName(BootstrapConstants.PATH_ELEMENT_NAME).item(0).getTextContent());
+    final NodeList property = application.getElementsByTagName(BootstrapConstants.PROPERTY_ELEMENT_NAME);
+    assertEquals(1, property.getLength());
+    assertEquals(attribute, ((Element) property.item(0)).getAttribute(BootstrapConstants.PROPERTY_KEY_ATTRIBUTE_NAME));
+    assertEquals(text, property.item(0).getTextContent());
+  }
+
+  private static byte[] write(final String moduleName, final String className, final List<PulsarBootstrapImpl.PathEntryImpl> paths, final Map<String, String> properties) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BootstrapWriter(out).write(moduleName, className, paths, properties);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.cds;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GenerateCdsArchiveTest {
+  @Test
+  public void testFeature() {
+    assertEquals(8, GenerateCdsArchive.feature("1.8.0_292"));
+    assertEquals(9, GenerateCdsArchive.feature("9"));
+    assertEquals(9, GenerateCdsArchive.feature("9.0.4"));
+    assertEquals(10, GenerateCdsArchive.feature("10.0.2"));
+    assertEquals(11, GenerateCdsArchive.feature("11"));
+    assertEquals(17, GenerateCdsArchive.feature("17-ea"));
+    assertEquals(-1, GenerateCdsArchive.feature("unknown"));
+  }
+}
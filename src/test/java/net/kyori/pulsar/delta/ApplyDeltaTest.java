@@ -0,0 +1,236 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.delta;
+
+import net.kyori.pulsar.util.Hashes;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ApplyDeltaTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testApply() throws IOException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    write(root, "libraries/changed.jar", "old");
+    write(root, "libraries/removed/removed.jar", "removed");
+    final Path bundle = this.bundle(
+      Arrays.asList(
+        added("libraries/added.jar", "added"),
+        changed("libraries/changed.jar", "new", "old"),
+        removed("libraries/removed/removed.jar", "removed")
+      ),
+      files("libraries/added.jar", "added", "libraries/changed.jar", "new")
+    );
+
+    assertEquals(Collections.emptyList(), ApplyDelta.apply(bundle, root));
+    assertEquals("added", read(root, "libraries/added.jar"));
+    assertEquals("new", read(root, "libraries/changed.jar"));
+    assertFalse(Files.exists(root.resolve("libraries/removed")));
+    assertTrue(Files.isDirectory(root.resolve("libraries")));
+
+    // applying again finds every change already made
+    assertEquals(Collections.emptyList(), ApplyDelta.apply(bundle, root));
+    assertEquals("new", read(root, "libraries/changed.jar"));
+  }
+
+  @Test
+  public void testRelativeRoot() throws IOException, InterruptedException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    write(root, "libraries/changed.jar", "old");
+    final Path bundle = this.bundle(
+      Arrays.asList(added("libraries/added.jar", "added"), changed("libraries/changed.jar", "new", "old")),
+      files("libraries/added.jar", "added", "libraries/changed.jar", "new")
+    );
+
+    // applied as documented, from within the distribution
+    final Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-jar", bundle.toString(), ".")
+      .directory(root.toFile())
+      .redirectErrorStream(true)
+      .start();
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try(final InputStream is = process.getInputStream()) {
+      final byte[] buffer = new byte[8192];
+      int read;
+      while((read = is.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+      }
+    }
+    assertEquals(output.toString("UTF-8"), 0, process.waitFor());
+    assertEquals("added", read(root, "libraries/added.jar"));
+    assertEquals("new", read(root, "libraries/changed.jar"));
+  }
+
+  @Test
+  public void testMismatchedDistributionUntouched() throws IOException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    write(root, "libraries/changed.jar", "modified");
+    write(root, "libraries/removed.jar", "modified");
+    write(root, "libraries/added.jar", "modified");
+    final Path bundle = this.bundle(
+      Arrays.asList(
+        changed("libraries/changed.jar", "new", "old"),
+        removed("libraries/removed.jar", "removed"),
+        added("libraries/added.jar", "added"),
+        changed("libraries/missing.jar", "new", "old")
+      ),
+      files("libraries/changed.jar", "new", "libraries/added.jar", "added", "libraries/missing.jar", "new")
+    );
+
+    assertEquals(4, ApplyDelta.apply(bundle, root).size());
+    assertEquals("modified", read(root, "libraries/changed.jar"));
+    assertEquals("modified", read(root, "libraries/removed.jar"));
+    assertEquals("modified", read(root, "libraries/added.jar"));
+    assertFalse(Files.exists(root.resolve("libraries/missing.jar")));
+  }
+
+  @Test
+  public void testCorruptCopy() throws IOException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    final Path bundle = this.bundle(Collections.singletonList(added("libraries/added.jar", "added")), files("libraries/added.jar", "corrupt"));
+    assertFails(bundle, root);
+    assertFalse(Files.exists(root.resolve("libraries/added.jar")));
+  }
+
+  @Test
+  public void testOutsideDistribution() throws IOException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    final Path bundle = this.bundle(Collections.singletonList(added("../escaped.jar", "escaped")), files("../escaped.jar", "escaped"));
+    assertFails(bundle, root);
+    assertFalse(Files.exists(root.resolveSibling("escaped.jar")));
+  }
+
+  @Test
+  public void testUnsupportedFormat() throws IOException {
+    final Path root = this.temporary.newFolder("distribution").toPath();
+    final Path bundle = this.temporary.getRoot().toPath().resolve("bundle.jar");
+    try(final ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(bundle))) {
+      zip.putNextEntry(new ZipEntry(ApplyDelta.DELTA_ENTRY_NAME));
+      zip.write("pulsar-delta 2\n".getBytes(StandardCharsets.UTF_8));
+    }
+    assertFails(bundle, root);
+  }
+
+  // writes a bundle as GenerateDelta does, runnable with java -jar
+  private Path bundle(final List<String> changes, final Map<String, String> files) throws IOException {
+    final Path bundle = this.temporary.getRoot().toPath().resolve("bundle.jar");
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, ApplyDelta.class.getName());
+    try(final JarOutputStream jar = new JarOutputStream(Files.newOutputStream(bundle), manifest)) {
+      final String tool = ApplyDelta.class.getName().replace('.', '/') + ".class";
+      jar.putNextEntry(new JarEntry(tool));
+      try(final InputStream is = ApplyDelta.class.getClassLoader().getResourceAsStream(tool)) {
+        final byte[] buffer = new byte[8192];
+        int read;
+        while((read = is.read(buffer)) != -1) {
+          jar.write(buffer, 0, read);
+        }
+      }
+      jar.putNextEntry(new JarEntry(ApplyDelta.DELTA_ENTRY_NAME));
+      final StringBuilder delta = new StringBuilder(ApplyDelta.DELTA_HEADER).append('\n');
+      for(final String change : changes) {
+        delta.append(change).append('\n');
+      }
+      jar.write(delta.toString().getBytes(StandardCharsets.UTF_8));
+      for(final Map.Entry<String, String> file : files.entrySet()) {
+        jar.putNextEntry(new JarEntry(ApplyDelta.FILES_DIRECTORY_NAME + file.getKey()));
+        jar.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return bundle;
+  }
+
+  private static String added(final String path, final String contents) {
+    return ApplyDelta.ADDED + "\t" + path + '\t' + contents.length() + '\t' + hash(contents);
+  }
+
+  private static String changed(final String path, final String contents, final String previous) {
+    return ApplyDelta.CHANGED + "\t" + path + '\t' + contents.length() + '\t' + hash(contents) + '\t' + hash(previous);
+  }
+
+  private static String removed(final String path, final String previous) {
+    return ApplyDelta.REMOVED + "\t" + path + '\t' + hash(previous);
+  }
+
+  private static Map<String, String> files(final String... pathsAndContents) {
+    final Map<String, String> files = new LinkedHashMap<>();
+    for(int i = 0; i < pathsAndContents.length; i += 2) {
+      files.put(pathsAndContents[i], pathsAndContents[i + 1]);
+    }
+    return files;
+  }
+
+  private static String hash(final String contents) {
+    return Hashes.sha256(contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void write(final Path root, final String path, final String contents) throws IOException {
+    final Path file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    try(final OutputStream os = Files.newOutputStream(file)) {
+      os.write(contents.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String read(final Path root, final String path) throws IOException {
+    return new String(Files.readAllBytes(root.resolve(path)), StandardCharsets.UTF_8);
+  }
+
+  private static void assertFails(final Path bundle, final Path root) {
+    try {
+      ApplyDelta.apply(bundle, root);
+    } catch(final IOException e) {
+      return;
+    }
+    fail("Expected an IOException");
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.Synthetic;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AttributionTest {
+  private final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+  private final Map<ComponentIdentifier, List<File>> files = new LinkedHashMap<>();
+
+  @Test
+  public void testNearestIntroducer() {
+    final ResolvedComponentResult root = component("root");
+    final ResolvedComponentResult a = this.selected("a");
+    final ResolvedComponentResult b = this.selected("b");
+    final ResolvedComponentResult c = this.selected("c");
+    final ResolvedComponentResult x = this.selected("x");
+    final ResolvedComponentResult y = this.selected("y");
+    Synthetic.depend(root, a);
+    Synthetic.depend(root, b);
+    Synthetic.depend(a, x);
+    Synthetic.depend(x, y);
+    Synthetic.depend(b, y);
+    Synthetic.depend(a, c);
+    Synthetic.depend(b, c);
+
+    final Attribution attribution = this.attribution(root);
+    assertEquals(name(a), attribution.introducer(file("a")));
+    assertEquals(name(b), attribution.introducer(file("b")));
+    assertEquals(name(a), attribution.introducer(file("x")));
+    // nearer to b, although a is declared first
+    assertEquals(name(b), attribution.introducer(file("y")));
+    // as near to both, and a is declared first
+    assertEquals(name(a), attribution.introducer(file("c")));
+
+    assertEquals(Arrays.asList(name(a), name(b)), Arrays.asList(attribution.subtrees().keySet().toArray()));
+    assertEquals(files("a", "c", "x", "y"), attribution.subtrees().get(name(a)));
+    assertEquals(files("b", "c", "y"), attribution.subtrees().get(name(b)));
+  }
+
+  @Test
+  public void testPrunedNotWalked() {
+    this.dependencies.excludeTransitively(id -> id.getName().equals("pruned"));
+    final ResolvedComponentResult root = component("root");
+    final ResolvedComponentResult a = this.selected("a");
+    final ResolvedComponentResult b = this.selected("b");
+    final ResolvedComponentResult pruned = component("pruned");
+    final ResolvedComponentResult hidden = this.selected("hidden");
+    final ResolvedComponentResult shared = this.selected("shared");
+    final ResolvedComponentResult middle = this.selected("middle");
+    Synthetic.depend(root, a);
+    Synthetic.depend(root, b);
+    Synthetic.depend(a, pruned);
+    Synthetic.depend(pruned, hidden);
+    Synthetic.depend(pruned, shared);
+    Synthetic.depend(b, middle);
+    Synthetic.depend(middle, shared);
+
+    final Attribution attribution = this.attribution(root);
+    assertNull(attribution.introducer(file("hidden")));
+    // nearer to a, but only through the pruned dependency
+    assertEquals(name(b), attribution.introducer(file("shared")));
+    assertEquals(files("a"), attribution.subtrees().get(name(a)));
+    assertEquals(files("b", "middle", "shared"), attribution.subtrees().get(name(b)));
+  }
+
+  @Test
+  public void testSubtreesOfSeveralRoots() {
+    final ResolvedComponentResult first = component("first");
+    final ResolvedComponentResult second = component("second");
+    final ResolvedComponentResult a = this.selected("a");
+    final ResolvedComponentResult b = this.selected("b");
+    final ResolvedComponentResult shared = this.selected("shared");
+    final ResolvedComponentResult leaf = this.selected("leaf");
+    Synthetic.depend(first, a);
+    Synthetic.depend(a, shared);
+    Synthetic.depend(second, b);
+    Synthetic.depend(b, shared);
+    // grows the origins of shared after it was first walked, which must reach leaf too
+    Synthetic.depend(shared, leaf);
+
+    final Attribution attribution = this.attribution(first, second);
+    assertEquals(name(a), attribution.introducer(file("shared")));
+    assertEquals(name(a), attribution.introducer(file("leaf")));
+    assertEquals(files("a", "shared", "leaf"), attribution.subtrees().get(name(a)));
+    assertEquals(files("b", "shared", "leaf"), attribution.subtrees().get(name(b)));
+  }
+
+  private Attribution attribution(final ResolvedComponentResult... roots) {
+    return this.dependencies.attribution(Arrays.asList(roots), this.files);
+  }
+
+  private ResolvedComponentResult selected(final String name) {
+    final ResolvedComponentResult component = component(name);
+    this.files.put(component.getId(), Collections.singletonList(file(name)));
+    return component;
+  }
+
+  private static ResolvedComponentResult component(final String name) {
+    return Synthetic.component("net.kyori.test", name, "1.0");
+  }
+
+  private static String name(final ResolvedComponentResult component) {
+    return component.getId().getDisplayName();
+  }
+
+  private static File file(final String name) {
+    return new File(name + ".jar");
+  }
+
+  private static Set<File> files(final String... names) {
+    final Set<File> files = new HashSet<>();
+    for(final String name : names) {
+      files.add(file(name));
+    }
+    return files;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.Synthetic;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyRulesTest {
+  private final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+  private final DependencyRules rules = new DependencyRules();
+
+  @Test
+  public void testDefaultDecisions() {
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "lib", "1.0"));
+
+    this.rule("com.example", "excluded", "1.0", false, false);
+    this.rule("com.example", "pruned", "1.0", false, true);
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "excluded", "1.0"));
+    assertEquals(DependencyRules.Decision.PRUNE, this.decide("com.example", "pruned", "1.0"));
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "lib", "1.0"));
+    assertEquals(2, this.rules.matches());
+
+    // once anything is included, only what is included is
+    this.rule("com.example", "included", "1.0", true, false);
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "included", "1.0"));
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "lib", "1.0"));
+    assertEquals(3, this.rules.matches());
+  }
+
+  @Test
+  public void testEarlierPatternBeforeExact() {
+    this.rule("com\\.example", "lib.*", null, false, false);
+    this.rule("com.example", "lib", "1.0", true, false);
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "lib", "1.0"));
+  }
+
+  @Test
+  public void testEarlierExactBeforePattern() {
+    this.rule("com.example", "lib", "1.0", true, false);
+    this.rule("com\\.example", "lib.*", null, false, true);
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "lib", "1.0"));
+    assertEquals(DependencyRules.Decision.PRUNE, this.decide("com.example", "lib", "2.0"));
+    assertEquals(DependencyRules.Decision.PRUNE, this.decide("com.example", "library", "1.0"));
+  }
+
+  @Test
+  public void testVersionless() {
+    this.rule("com.example", "lib", "1.0", false, false);
+    this.rule("com.example", "lib", null, true, false);
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "lib", "1.0"));
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "lib", "2.0"));
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "other", "2.0"));
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("org.example", "lib", "2.0"));
+  }
+
+  @Test
+  public void testDotsAreLiteral() {
+    this.rule("com.example", "lib", "1.0", false, false);
+    assertEquals(DependencyRules.Decision.EXCLUDE, this.decide("com.example", "lib", "1.0"));
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("comXexample", "lib", "1.0"));
+    assertEquals(DependencyRules.Decision.INCLUDE, this.decide("com.example", "lib", "1x0"));
+  }
+
+  @Test
+  public void testLiteral() {
+    assertTrue(DependencyRules.literal("com.example"));
+    assertTrue(DependencyRules.literal("1.0.0-SNAPSHOT"));
+    assertFalse(DependencyRules.literal(".example"));
+    assertFalse(DependencyRules.literal("com.example."));
+    assertFalse(DependencyRules.literal("com..example"));
+    assertFalse(DependencyRules.literal("com\\.example"));
+    assertFalse(DependencyRules.literal("1.+"));
+  }
+
+  private void rule(final String group, final String name, final String version, final boolean include, final boolean transitive) {
+    final DependencyRules.Rule rule = this.rules.rule(this.dependencies.dependency(Synthetic.dependency(group, name, version)));
+    rule.include = include;
+    rule.transitive = transitive;
+  }
+
+  private DependencyRules.Decision decide(final String group, final String name, final String version) {
+    return this.rules.decide(Synthetic.moduleVersion(group, name, version));
+  }
+}
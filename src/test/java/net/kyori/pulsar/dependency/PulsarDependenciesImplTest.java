@@ -0,0 +1,204 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.dependency;
+
+import net.kyori.pulsar.Synthetic;
+import net.kyori.pulsar.util.Identifier;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PulsarDependenciesImplTest {
+  private final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+  private final Map<String, Integer> visits = new HashMap<>();
+
+  public PulsarDependenciesImplTest() {
+    // matches nothing, but counts the components it is asked about
+    this.dependencies.exclude(id -> {
+      this.visits.merge(id.getName(), 1, Integer::sum);
+      return false;
+    });
+  }
+
+  @Test
+  public void testDiamondVisitedOnce() {
+    final ResolvedComponentResult root = component("root");
+    final ResolvedComponentResult a = component("a");
+    final ResolvedComponentResult b = component("b");
+    final ResolvedComponentResult c = component("c");
+    final ResolvedComponentResult d = component("d");
+    Synthetic.depend(root, a);
+    Synthetic.depend(root, b);
+    Synthetic.depend(a, c);
+    Synthetic.depend(b, c); // queued again below b before it is visited
+    Synthetic.depend(c, d);
+
+    final int[] nodes = new int[1];
+    assertEquals(names("a", "b", "c", "d"), this.resolve(nodes, root));
+    assertArrayEquals(new int[]{5}, nodes);
+    this.assertVisitedOnce("a", "b", "c", "d");
+  }
+
+  @Test
+  public void testStackedDiamondsVisitedOnce() {
+    // each layer doubles the paths to the components below it: 2^30 paths to the last one
+    final int layers = 30;
+    final ResolvedComponentResult root = component("root");
+    ResolvedComponentResult top = root;
+    for(int i = 0; i < layers; i++) {
+      final ResolvedComponentResult left = component("left" + i);
+      final ResolvedComponentResult right = component("right" + i);
+      final ResolvedComponentResult bottom = component("bottom" + i);
+      Synthetic.depend(top, left);
+      Synthetic.depend(top, right);
+      Synthetic.depend(left, bottom);
+      Synthetic.depend(right, bottom);
+      top = bottom;
+    }
+
+    final int[] nodes = new int[1];
+    assertEquals(layers * 3, this.resolve(nodes, root).size());
+    assertArrayEquals(new int[]{layers * 3 + 1}, nodes);
+    assertEquals(layers * 3, this.visits.size());
+    for(final Map.Entry<String, Integer> entry : this.visits.entrySet()) {
+      assertEquals(entry.getKey() + " should be visited once", Integer.valueOf(1), entry.getValue());
+    }
+  }
+
+  @Test
+  public void testSharedSubtreeVisitedOnce() {
+    final ResolvedComponentResult first = component("first");
+    final ResolvedComponentResult second = component("second");
+    final ResolvedComponentResult a = component("a");
+    final ResolvedComponentResult b = component("b");
+    final ResolvedComponentResult shared = component("shared");
+    final ResolvedComponentResult leaf = component("leaf");
+    Synthetic.depend(first, a);
+    Synthetic.depend(a, shared);
+    Synthetic.depend(shared, leaf);
+    Synthetic.depend(second, b);
+    Synthetic.depend(b, shared);
+
+    final int[] nodes = new int[2];
+    assertEquals(names("a", "b", "shared", "leaf"), this.resolve(nodes, first, second));
+    assertArrayEquals(new int[]{4, 2}, nodes);
+    this.assertVisitedOnce("a", "b", "shared", "leaf");
+  }
+
+  @Test
+  public void testDeclarationOrder() {
+    final ResolvedComponentResult root = component("root");
+    final ResolvedComponentResult a = component("a");
+    final ResolvedComponentResult b = component("b");
+    final ResolvedComponentResult c = component("c");
+    final ResolvedComponentResult d = component("d");
+    final ResolvedComponentResult e = component("e");
+    Synthetic.depend(root, a);
+    Synthetic.depend(root, b);
+    Synthetic.depend(a, c);
+    Synthetic.depend(a, d);
+    Synthetic.depend(b, e);
+    Synthetic.depend(c, b);
+
+    final List<String> order = this.dependencies.resolve(Arrays.asList(root), new int[1]).stream()
+      .map(PulsarDependency::getIdentifier)
+      .map(Identifier::getName)
+      .collect(Collectors.toList());
+    assertEquals(Arrays.asList("a", "b", "c", "d", "e"), order);
+  }
+
+  @Test
+  public void testPrunedSubtreeReachableThroughAnotherPath() {
+    // the pruned dependency is visited both before and after the other path to the shared one
+    for(final boolean prunedFirst : new boolean[]{true, false}) {
+      final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+      dependencies.excludeTransitively(id -> id.getName().equals("pruned"));
+      final ResolvedComponentResult root = component("root");
+      final ResolvedComponentResult pruned = component("pruned");
+      final ResolvedComponentResult kept = component("kept");
+      final ResolvedComponentResult shared = component("shared");
+      final ResolvedComponentResult exclusive = component("exclusive");
+      if(prunedFirst) {
+        Synthetic.depend(root, pruned);
+        Synthetic.depend(root, kept);
+      } else {
+        Synthetic.depend(root, kept);
+        Synthetic.depend(root, pruned);
+      }
+      Synthetic.depend(pruned, shared);
+      Synthetic.depend(pruned, exclusive);
+      Synthetic.depend(kept, shared);
+
+      assertEquals(names("kept", "shared"), names(dependencies.resolve(Arrays.asList(root), new int[1])));
+    }
+  }
+
+  @Test
+  public void testExcludedDependenciesStillWalked() {
+    final PulsarDependenciesImpl dependencies = new PulsarDependenciesImpl(null);
+    dependencies.exclude(id -> id.getName().equals("excluded"));
+    final ResolvedComponentResult root = component("root");
+    final ResolvedComponentResult excluded = component("excluded");
+    Synthetic.depend(root, excluded);
+    Synthetic.depend(excluded, component("child"));
+
+    assertEquals(names("child"), names(dependencies.resolve(Arrays.asList(root), new int[1])));
+  }
+
+  private Set<String> resolve(final int[] nodes, final ResolvedComponentResult... roots) {
+    return names(this.dependencies.resolve(Arrays.asList(roots), nodes));
+  }
+
+  private void assertVisitedOnce(final String... names) {
+    for(final String name : names) {
+      assertEquals(name + " should be visited once", Integer.valueOf(1), this.visits.get(name));
+    }
+  }
+
+  private static ResolvedComponentResult component(final String name) {
+    return Synthetic.component("net.kyori.test", name, "1.0");
+  }
+
+  private static Set<String> names(final String... names) {
+    return new HashSet<>(Arrays.asList(names));
+  }
+
+  private static Set<String> names(final Collection<PulsarDependency> dependencies) {
+    return dependencies.stream()
+      .map(PulsarDependency::getIdentifier)
+      .map(Identifier::getName)
+      .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HashCacheTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testPersisted() throws IOException {
+    final File file = this.file("library.jar", "contents");
+    final File store = new File(this.temporary.getRoot(), "hashes.txt");
+    final HashCache cache = new HashCache(store);
+    cache.load();
+    assertNull(cache.get(file));
+    cache.put(file, file.length(), file.lastModified(), "hash");
+    assertEquals("hash", cache.get(file));
+    cache.save();
+
+    final HashCache loaded = new HashCache(store);
+    loaded.load();
+    assertEquals("hash", loaded.get(file));
+  }
+
+  @Test
+  public void testChangedSize() throws IOException {
+    final File file = this.file("library.jar", "contents");
+    final HashCache cache = new HashCache(new File(this.temporary.getRoot(), "hashes.txt"));
+    cache.put(file, file.length(), file.lastModified(), "hash");
+    final long modified = file.lastModified();
+    Files.write(file.toPath(), "changed contents".getBytes(StandardCharsets.UTF_8));
+    file.setLastModified(modified);
+    assertNull(cache.get(file));
+  }
+
+  @Test
+  public void testChangedModificationTime() throws IOException {
+    final File file = this.file("library.jar", "contents");
+    final HashCache cache = new HashCache(new File(this.temporary.getRoot(), "hashes.txt"));
+    cache.put(file, file.length(), file.lastModified(), "hash");
+    file.setLastModified(file.lastModified() - 60000);
+    assertNull(cache.get(file));
+  }
+
+  @Test
+  public void testRetain() throws IOException {
+    final File kept = this.file("kept.jar", "kept");
+    final File dropped = this.file("dropped.jar", "dropped");
+    final File store = new File(this.temporary.getRoot(), "hashes.txt");
+    final HashCache cache = new HashCache(store);
+    cache.put(kept, kept.length(), kept.lastModified(), "kept");
+    cache.put(dropped, dropped.length(), dropped.lastModified(), "dropped");
+    cache.retain(Collections.singleton(kept));
+    cache.save();
+
+    final HashCache loaded = new HashCache(store);
+    loaded.load();
+    assertEquals("kept", loaded.get(kept));
+    assertNull(loaded.get(dropped));
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    final File file = this.file("library.jar", "contents");
+    final HashCache cache = new HashCache(new File(this.temporary.getRoot(), "hashes.txt"));
+    cache.put(file, file.length(), file.lastModified(), "hash");
+    cache.remove(file);
+    assertNull(cache.get(file));
+  }
+
+  @Test
+  public void testUnreadable() throws IOException {
+    final File file = this.file("library.jar", "contents");
+    final File store = this.file("hashes.txt", "not-a-size\t" + file.lastModified() + "\thash\t" + file.getAbsolutePath() + '\n');
+    final HashCache cache = new HashCache(store);
+    cache.load();
+    assertNull(cache.get(file));
+  }
+
+  private File file(final String name, final String contents) throws IOException {
+    final File file = new File(this.temporary.getRoot(), name);
+    Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.install;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InstallSharedTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testInstallTwice() throws IOException {
+    final InstallShared task = this.task(this.file("first.jar", "first"), this.file("second.jar", "second"));
+    task.install();
+    task.install();
+
+    final Path libraries = task.getDestination().toPath().resolve("libraries");
+    assertEquals("first", read(libraries.resolve("first.jar")));
+    assertEquals("second", read(libraries.resolve("second.jar")));
+    assertEquals(2, this.stored(task).size());
+  }
+
+  @Test
+  public void testRemovedLibrary() throws IOException {
+    final InstallShared task = this.task(this.file("first.jar", "first"), this.file("second.jar", "second"));
+    task.install();
+    task.getClasspath().setFrom(this.temporary.getRoot().toPath().resolve("first.jar").toFile());
+    task.install();
+
+    final Path libraries = task.getDestination().toPath().resolve("libraries");
+    assertTrue(Files.exists(libraries.resolve("first.jar")));
+    assertFalse(Files.exists(libraries.resolve("second.jar")));
+    // the store is never pruned
+    assertEquals(2, this.stored(task).size());
+  }
+
+  @Test
+  public void testIdenticalLibrariesShared() throws IOException {
+    final InstallShared task = this.task(this.file("first.jar", "same"), this.file("second.jar", "same"));
+    task.install();
+
+    final Path libraries = task.getDestination().toPath().resolve("libraries");
+    final Path stored = this.stored(task).get(0);
+    assertEquals(1, this.stored(task).size());
+    assertTrue(Files.isSameFile(stored, libraries.resolve("first.jar")));
+    assertTrue(Files.isSameFile(stored, libraries.resolve("second.jar")));
+    assertTrue(Files.isWritable(stored));
+  }
+
+  private InstallShared task(final File... classpath) throws IOException {
+    final Project project = ProjectBuilder.builder().withProjectDir(this.temporary.newFolder("project")).build();
+    final InstallShared task = project.getTasks().create("installShared", InstallShared.class);
+    task.getClasspath().from((Object[]) classpath);
+    task.setPathTransformer(file -> "libraries/" + file.getName());
+    task.setStore(new File(this.temporary.getRoot(), "store"));
+    task.setDestination(new File(this.temporary.getRoot(), "distribution"));
+    task.setHashCache(new File(this.temporary.getRoot(), "hashes.txt"));
+    return task;
+  }
+
+  private List<Path> stored(final InstallShared task) throws IOException {
+    try(final Stream<Path> paths = Files.walk(task.getStore().toPath())) {
+      return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+  }
+
+  private File file(final String name, final String contents) throws IOException {
+    final File file = new File(this.temporary.getRoot(), name);
+    Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static String read(final Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.merge;
+
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MergeJarsTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testLibraryManifestNotKept() throws IOException {
+    final Attributes attributes = this.merge(false, this.jar("library.jar", "com.example.Library", true), this.jar("other.jar", null, false));
+    assertEquals("1.0", attributes.getValue(Attributes.Name.MANIFEST_VERSION));
+    assertEquals("true", attributes.getValue("Multi-Release"));
+    assertNull(attributes.getValue(Attributes.Name.MAIN_CLASS));
+    assertNull(attributes.getValue(Attributes.Name.CLASS_PATH));
+  }
+
+  @Test
+  public void testProjectManifestKept() throws IOException {
+    final Attributes attributes = this.merge(true, this.jar("project.jar", "com.example.Main", false), this.jar("library.jar", "com.example.Library", true));
+    assertEquals("com.example.Main", attributes.getValue(Attributes.Name.MAIN_CLASS));
+    assertEquals("library.jar", attributes.getValue(Attributes.Name.CLASS_PATH));
+    assertEquals("true", attributes.getValue("Multi-Release"));
+  }
+
+  @Test
+  public void testMissingProjectJar() throws IOException {
+    final Attributes attributes = this.merge(true, new File(this.temporary.getRoot(), "missing.jar"), this.jar("library.jar", "com.example.Library", false));
+    assertNull(attributes.getValue(Attributes.Name.MAIN_CLASS));
+  }
+
+  private Attributes merge(final boolean keepManifest, final File... jars) throws IOException {
+    final MergeJars task = ProjectBuilder.builder().withProjectDir(this.temporary.newFolder("project")).build()
+      .getTasks().create("mergeJars", MergeJars.class);
+    task.getJars().from((Object[]) jars);
+    task.setKeepManifest(keepManifest);
+    task.setDestination(new File(this.temporary.getRoot(), "merged.jar"));
+    task.merge();
+    try(final JarFile jar = new JarFile(task.getDestination())) {
+      return jar.getManifest().getMainAttributes();
+    }
+  }
+
+  private File jar(final String name, final String mainClass, final boolean multiRelease) throws IOException {
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if(mainClass != null) {
+      manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, mainClass);
+      manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "library.jar");
+    }
+    if(multiRelease) {
+      manifest.getMainAttributes().putValue("Multi-Release", "true");
+    }
+    final File file = new File(this.temporary.getRoot(), name);
+    new JarOutputStream(Files.newOutputStream(file.toPath()), manifest).close();
+    return file;
+  }
+}
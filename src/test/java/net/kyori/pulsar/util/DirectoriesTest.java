@@ -0,0 +1,111 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DirectoriesTest {
+  @Rule
+  public final TemporaryFolder temporary = new TemporaryFolder();
+
+  @Test
+  public void testRetain() throws IOException {
+    final Path root = this.root();
+    final Path kept = file(root.resolve("libraries/kept/kept.jar"));
+    final Path sibling = file(root.resolve("libraries/kept/removed.jar"));
+    final Path nested = file(root.resolve("libraries/removed/nested/removed.jar"));
+    final Path resource = file(root.resolve("removed.txt"));
+    Files.createDirectories(root.resolve("empty"));
+
+    final Set<Path> removed = new HashSet<>();
+    Directories.retain(root, new HashSet<>(Arrays.asList(kept)), removed::add);
+
+    assertTrue(Files.isRegularFile(kept));
+    assertFalse(Files.exists(sibling));
+    assertFalse(Files.exists(root.resolve("libraries/removed")));
+    assertFalse(Files.exists(resource));
+    assertFalse(Files.exists(root.resolve("empty")));
+    assertEquals(new HashSet<>(Arrays.asList(sibling, nested, resource)), removed);
+  }
+
+  @Test
+  public void testLinksNotFollowed() throws IOException {
+    final Path root = this.root();
+    final Path outside = file(this.temporary.getRoot().toPath().toAbsolutePath().normalize().resolve("outside/library.jar"));
+    final Path link = root.resolve("libraries");
+    Files.createSymbolicLink(link, outside.getParent());
+
+    final Set<Path> removed = new HashSet<>();
+    Directories.retain(root, new HashSet<>(), removed::add);
+
+    assertFalse(Files.exists(link, LinkOption.NOFOLLOW_LINKS));
+    assertTrue(Files.isRegularFile(outside));
+    assertEquals(new HashSet<>(Arrays.asList(link)), removed);
+  }
+
+  @Test
+  public void testMissingRoot() throws IOException {
+    final Path root = this.temporary.getRoot().toPath().resolve("missing");
+    Directories.retain(root, new HashSet<>(), path -> {});
+    assertFalse(Files.exists(root));
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    final Path root = this.root();
+    file(root.resolve("libraries/library.jar"));
+    file(root.resolve("bootstrap.xml"));
+
+    Directories.clear(root);
+
+    assertTrue(Files.isDirectory(root));
+    try(final Stream<Path> children = Files.list(root)) {
+      assertFalse(children.findAny().isPresent());
+    }
+  }
+
+  private Path root() throws IOException {
+    return this.temporary.newFolder("root").toPath().toAbsolutePath().normalize();
+  }
+
+  private static Path file(final Path path) throws IOException {
+    Files.createDirectories(path.getParent());
+    return Files.createFile(path);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of pulsar, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.pulsar.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TarWriterTest {
+  private static final int BLOCK = 512;
+
+  @Test
+  public void testNames() throws IOException {
+    final String shortName = "libraries/short.jar";
+    // fits in the ustar prefix and name fields
+    final String split = repeat('a', 120) + "/" + repeat('b', 90) + ".jar";
+    // a single segment longer than the ustar name field
+    final String unsplittable = "libraries/" + repeat('c', 150) + ".jar";
+    // fits in length, but a ustar header cannot hold non-ascii names portably
+    final String unicode = "libraries/" + repeat('\u00e9', 60) + ".jar";
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try(final TarWriter writer = new TarWriter(out)) {
+      writer.directory("libraries");
+      writer.file(shortName, bytes("short"));
+      writer.file(split, bytes("split"));
+      writer.file(unsplittable, bytes("unsplittable"));
+      writer.file(unicode, bytes("unicode"));
+    }
+
+    final Map<String, String> entries = read(out.toByteArray());
+    assertEquals(Arrays.asList("libraries/", shortName, split, unsplittable, unicode), Arrays.asList(entries.keySet().toArray()));
+    assertEquals("", entries.get("libraries/"));
+    assertEquals("short", entries.get(shortName));
+    assertEquals("split", entries.get(split));
+    assertEquals("unsplittable", entries.get(unsplittable));
+    assertEquals("unicode", entries.get(unicode));
+  }
+
+  @Test
+  public void testBlocks() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try(final TarWriter writer = new TarWriter(out)) {
+      writer.file("file", bytes("contents"));
+    }
+    // a header, a padded block of contents, and the two block end of archive marker
+    assertEquals(4 * BLOCK, out.size());
+  }
+
+  // reads the entries of a ustar archive, applying the path of pax extended headers
+  private static Map<String, String> read(final byte[] archive) {
+    final Map<String, String> entries = new LinkedHashMap<>();
+    String path = null;
+    int offset = 0;
+    while(archive[offset] != 0) {
+      assertChecksum(archive, offset);
+      final char type = (char) archive[offset + 156];
+      final int size = Integer.parseInt(string(archive, offset + 124, 11), 8);
+      final String contents = new String(archive, offset + BLOCK, size, StandardCharsets.UTF_8);
+      if(type == 'x') {
+        // "<length> path=<value>\n", where the length includes itself
+        assertEquals(size, Integer.parseInt(contents.substring(0, contents.indexOf(' '))));
+        assertTrue(contents.endsWith("\n"));
+        path = contents.substring(contents.indexOf("path=") + 5, contents.length() - 1);
+      } else {
+        final String prefix = string(archive, offset + 345, 155);
+        final String name = string(archive, offset, 100);
+        entries.put(path != null ? path : (prefix.isEmpty() ? name : prefix + '/' + name), contents);
+        path = null;
+      }
+      offset += BLOCK + (size + BLOCK - 1) / BLOCK * BLOCK;
+    }
+    assertEquals(archive.length, offset + 2 * BLOCK);
+    return entries;
+  }
+
+  private static void assertChecksum(final byte[] archive, final int offset) {
+    long sum = 0;
+    for(int i = 0; i < BLOCK; i++) {
+      sum += i >= 148 && i < 156 ? ' ' : archive[offset + i] & 0xff;
+    }
+    assertEquals(sum, Long.parseLong(string(archive, offset + 148, 6), 8));
+  }
+
+  private static String string(final byte[] bytes, final int offset, final int length) {
+    int end = offset;
+    while(end < offset + length && bytes[end] != 0) {
+      end++;
+    }
+    return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+  }
+
+  private static String repeat(final char c, final int times) {
+    final char[] chars = new char[times];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
+  private static byte[] bytes(final String string) {
+    return string.getBytes(StandardCharsets.UTF_8);
+  }
+}